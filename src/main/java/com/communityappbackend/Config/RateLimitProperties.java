@@ -0,0 +1,51 @@
+package com.communityappbackend.Config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request limits per endpoint group (rate-limit.* in application.properties).
+ * A request counts against the most specific group whose path pattern matches it.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Buckets untouched for this long are dropped (a dropped bucket is simply full again)
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    private long maxBuckets = 200_000;
+
+    private Map<String, Group> groups = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Group {
+
+        // Spring path patterns, e.g. /api/notifications/**
+        private List<String> paths = new ArrayList<>();
+
+        // Burst size: requests allowed back to back from a full bucket
+        private int capacity = 60;
+
+        // Time to refill the whole capacity, i.e. the sustained rate is capacity per period
+        private Duration period = Duration.ofMinutes(1);
+
+        private Key key = Key.USER;
+    }
+
+    public enum Key {
+        USER, // authenticated user id, falling back to the client IP
+        IP
+    }
+}
@@ -0,0 +1,27 @@
+package com.communityappbackend.Config;
+
+import com.communityappbackend.Service.BlobStore;
+import com.communityappbackend.Service.LocalBlobStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+
+/**
+ * Image storage locations. Each kind of image gets its own store so the directories
+ * can be moved or mounted independently; both are set in application.properties.
+ */
+@Configuration
+public class StorageConfig {
+
+    @Bean
+    public BlobStore itemImageStore(@Value("${item.image.upload.dir}") String dir) {
+        return new LocalBlobStore(Paths.get(dir));
+    }
+
+    @Bean
+    public BlobStore profileImageStore(@Value("${profile.image.upload.dir}") String dir) {
+        return new LocalBlobStore(Paths.get(dir));
+    }
+}
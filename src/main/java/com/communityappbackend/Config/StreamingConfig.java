@@ -0,0 +1,47 @@
+package com.communityappbackend.Config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Async timeout for the streaming list endpoints.
+ *
+ * A streamed response is written on an async thread and would otherwise be cut off by the
+ * container's default async timeout (30 s on Tomcat) partway through a large list. Requests
+ * marked with {@link #STREAMING_REQUEST} get {@code streaming.request-timeout} instead; other
+ * async endpoints keep the default.
+ */
+@Configuration
+public class StreamingConfig implements WebMvcConfigurer {
+
+    public static final String STREAMING_REQUEST = StreamingConfig.class.getName() + ".STREAMING_REQUEST";
+
+    private final long timeoutMillis;
+
+    public StreamingConfig(@Value("${streaming.request-timeout:PT10M}") Duration timeout) {
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            // Runs before the async request starts, which is when the timeout is applied
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                if (request instanceof AsyncWebRequest asyncRequest
+                        && request.getAttribute(STREAMING_REQUEST, RequestAttributes.SCOPE_REQUEST) != null) {
+                    asyncRequest.setTimeout(timeoutMillis);
+                }
+            }
+        });
+    }
+}
@@ -2,61 +2,70 @@ package com.communityappbackend.Controller;
 
 
 import com.communityappbackend.DTO.AuthResponse;
+import com.communityappbackend.DTO.RefreshTokenRequest;
 import com.communityappbackend.DTO.SignInRequest;
 import com.communityappbackend.DTO.SignUpRequest;
-import com.communityappbackend.Model.User;
-import com.communityappbackend.Security.JwtUtils;
+import com.communityappbackend.Security.JwtVerifier;
+import com.communityappbackend.Service.AuthTokenService;
 import com.communityappbackend.Service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.*;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
     private final UserService userService;
-    private final AuthenticationManager authManager;
-    private final JwtUtils jwtUtils;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final AuthTokenService authTokenService;
+    private final JwtVerifier jwtVerifier;
 
     @Autowired
     public AuthController(UserService userService,
-                          AuthenticationManager authManager,
-                          JwtUtils jwtUtils,
-                          BCryptPasswordEncoder passwordEncoder) {
+                          AuthTokenService authTokenService,
+                          JwtVerifier jwtVerifier) {
         this.userService = userService;
-        this.authManager = authManager;
-        this.jwtUtils = jwtUtils;
-        this.passwordEncoder = passwordEncoder;
+        this.authTokenService = authTokenService;
+        this.jwtVerifier = jwtVerifier;
     }
 
+    // Both endpoints hand BCrypt to its own pool and release the request thread meanwhile;
+    // a saturated pool answers 503 with Retry-After. UserService's futures complete on the
+    // task executor, so issuing tokens (a refresh-token INSERT) never runs on the BCrypt pool.
+
     // ========== SIGN UP ==========
     @PostMapping("/signup")
-    public AuthResponse signUp(@RequestBody SignUpRequest request) {
-        User user = userService.signUp(request);
-        String token = jwtUtils.generateToken(user.getUserId());
-        return AuthResponse.builder()
-                .message("User created successfully")
-                .token(token)
-                .build();
+    public CompletableFuture<AuthResponse> signUp(@RequestBody SignUpRequest request) {
+        return userService.signUp(request)
+                .thenApply(user -> authTokenService.issue(user.getUserId(), "User created successfully"));
     }
 
 
     @PostMapping("/signin")
-    public AuthResponse signIn(@RequestBody SignInRequest request) {
-        User user = userService.findByEmail(request.getEmail());
-
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
-            throw new BadCredentialsException("Invalid email or password");
-        }
+    public CompletableFuture<AuthResponse> signIn(@RequestBody SignInRequest request) {
+        return userService.authenticate(request.getEmail(), request.getPassword())
+                .thenApply(user -> authTokenService.issue(user.getUserId(), "Login successful"));
+    }
 
-        String token = jwtUtils.generateToken(user.getUserId());
+    // ========== REFRESH ==========
+    // Exchanges a refresh token for a new access + refresh pair; the old refresh token stops working.
+    @PostMapping("/refresh")
+    public AuthResponse refresh(@RequestBody RefreshTokenRequest request) {
+        return authTokenService.refresh(request.getRefreshToken());
+    }
 
+    // ========== LOGOUT ==========
+    // Revokes the bearer access token right away, and the refresh token (with its rotations) if sent.
+    @PostMapping("/logout")
+    public AuthResponse logout(@RequestHeader(value = "Authorization", required = false) String headerAuth,
+                               @RequestBody(required = false) RefreshTokenRequest request) {
+        String token = (headerAuth != null && headerAuth.startsWith("Bearer "))
+                ? headerAuth.substring(7)
+                : null;
+        authTokenService.logout(jwtVerifier.verify(token), request != null ? request.getRefreshToken() : null);
         return AuthResponse.builder()
-                .message("Login successful")
-                .token(token)
+                .message("Logged out")
                 .build();
     }
 
@@ -3,7 +3,9 @@ package com.communityappbackend.Controller;
 import com.communityappbackend.DTO.CategoryRequest;
 import com.communityappbackend.DTO.CategoryResponse;
 import com.communityappbackend.Service.CategoryService;
+import com.communityappbackend.Service.ContentVersions;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -12,13 +14,18 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final ContentVersions contentVersions;
 
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, ContentVersions contentVersions) {
         this.categoryService = categoryService;
+        this.contentVersions = contentVersions;
     }
 
     @GetMapping
-    public List<CategoryResponse> getAll() {
+    public List<CategoryResponse> getAll(ServletWebRequest webRequest) {
+        if (ConditionalGet.notModified(webRequest, contentVersions.categoriesETag())) {
+            return null;
+        }
         return categoryService.getAllCategories();
     }
 
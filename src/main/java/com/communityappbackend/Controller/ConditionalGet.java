@@ -0,0 +1,30 @@
+package com.communityappbackend.Controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * ETag handling shared by the cacheable GET endpoints.
+ *
+ * Only strong ETags are used: Last-Modified has one-second resolution, so a change made in the
+ * same second as an earlier 200 would let an If-Modified-Since request get a stale 304.
+ */
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * Sets the validators on the response and returns true when the client's copy is current,
+     * in which case a 304 has already been prepared and the handler should return null.
+     */
+    static boolean notModified(ServletWebRequest request, String etag) {
+        // Let clients keep the body but always revalidate (replaces Spring Security's no-store default)
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL,
+                    CacheControl.noCache().cachePrivate().getHeaderValue());
+        }
+        return request.checkNotModified(etag);
+    }
+}
@@ -2,15 +2,21 @@ package com.communityappbackend.Controller;
 
 import com.communityappbackend.DTO.ItemRequest;
 import com.communityappbackend.DTO.ItemResponse;
+import com.communityappbackend.DTO.ItemSummaryResponse;
+import com.communityappbackend.Service.BlobStore;
+import com.communityappbackend.Service.ImageDerivativeService;
 import com.communityappbackend.Service.ItemService;
-import org.springframework.core.io.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.Resource;
 import org.springframework.http.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
-import java.io.File;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.io.IOException;
-import java.nio.file.*;
 import java.util.List;
 
 @RestController
@@ -18,12 +24,19 @@ import java.util.List;
 public class ItemController {
 
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
+    private final BlobStore itemImageStore;
+    private final ImageDerivativeService derivativeService;
+    private final ImageResponder imageResponder;
 
-    // For local images
-    private static final String ASSETS_DIR = "C:\\Projects\\Community App\\community-app-backend\\src\\main\\java\\com\\communityappbackend\\Assets";
-
-    public ItemController(ItemService itemService) {
+    public ItemController(ItemService itemService, ObjectMapper objectMapper,
+                          @Qualifier("itemImageStore") BlobStore itemImageStore,
+                          ImageDerivativeService derivativeService, ImageResponder imageResponder) {
         this.itemService = itemService;
+        this.objectMapper = objectMapper;
+        this.itemImageStore = itemImageStore;
+        this.derivativeService = derivativeService;
+        this.imageResponder = imageResponder;
     }
 
     // POST /api/items/add
@@ -38,39 +51,53 @@ public class ItemController {
 
     // GET /api/items/my
     @GetMapping("/my")
-    public List<ItemResponse> getMyItems(Authentication auth) {
+    public List<ItemSummaryResponse> getMyItems(Authentication auth) {
         return itemService.getMyItems(auth);
     }
 
     // NEW: GET /api/items/image/{filename}
-    // Serve actual image from the Assets folder
+    // Serve actual image from the item image store.
+    // ?size=N returns the smallest resized copy whose longest edge is at least N px,
+    // or the original while that copy is still being built.
+    // Supports Range requests and is cacheable for good (see ImageResponder).
     @GetMapping("/image/{filename:.+}")
-    public ResponseEntity<Resource> getImage(@PathVariable String filename) {
-        try {
-            File file = new File(ASSETS_DIR, filename);
-            if (!file.exists()) {
-                return ResponseEntity.notFound().build();
-            }
+    public void getImage(@PathVariable String filename,
+                         @RequestParam(required = false) Integer size,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        Resource resource = itemImageStore.get(filename);
+        if (resource == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
 
-            Path path = file.toPath();
-            String contentType = Files.probeContentType(path);
-            if (contentType == null) {
-                contentType = MediaType.APPLICATION_OCTET_STREAM_VALUE; // fallback
+        boolean exact = true;
+        if (size != null) {
+            Resource derivative = derivativeService.find(filename, size);
+            if (derivative != null) {
+                resource = derivative;
+            } else {
+                // Original stands in until the resized copy exists; don't let clients pin it
+                exact = derivativeService.servesOriginal(size);
             }
-
-            Resource resource = new FileSystemResource(file);
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .body(resource);
-
-        } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
+        imageResponder.write(resource, exact, request, response);
     }
 
     // NEW: GET /api/items/user/{userId} => fetch that user's items
     @GetMapping("/user/{userId}")
-    public List<ItemResponse> getItemsByUserId(@PathVariable String userId) {
+    public List<ItemSummaryResponse> getItemsByUserId(@PathVariable String userId) {
         return itemService.getItemsByOwner(userId);
     }
+
+    // GET /api/items/user/{userId}/stream => same rows as above, streamed as they are read.
+    // Send "Accept: application/x-ndjson" for one JSON object per line.
+    @GetMapping("/user/{userId}/stream")
+    public ResponseEntity<StreamingResponseBody> streamItemsByUserId(
+            @PathVariable String userId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        return JsonStreaming.<ItemSummaryResponse>stream(objectMapper, accept,
+                sink -> itemService.streamItemsByOwner(userId, sink));
+    }
 }
@@ -0,0 +1,72 @@
+package com.communityappbackend.Controller;
+
+import com.communityappbackend.Config.StreamingConfig;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Writes a list endpoint's results while they are being produced instead of collecting them first.
+ *
+ * The producer hands over one chunk at a time; each chunk is serialized with Jackson's streaming
+ * generator and flushed, so the first bytes leave after the first chunk and heap use per request
+ * is bounded by the chunk size. Clients asking for application/x-ndjson get one JSON object per
+ * line; everyone else gets a regular JSON array. The request is marked so StreamingConfig gives it
+ * the longer streaming timeout.
+ */
+final class JsonStreaming {
+
+    static final String NDJSON_VALUE = "application/x-ndjson";
+    static final MediaType NDJSON = MediaType.parseMediaType(NDJSON_VALUE);
+
+    private JsonStreaming() {
+    }
+
+    static <T> ResponseEntity<StreamingResponseBody> stream(ObjectMapper objectMapper,
+                                                            String accept,
+                                                            Consumer<Consumer<List<T>>> producer) {
+        boolean ndjson = accept != null && accept.contains(NDJSON_VALUE);
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(StreamingConfig.STREAMING_REQUEST, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+                gen.setRootValueSeparator(null);
+                if (!ndjson) {
+                    gen.writeStartArray();
+                }
+                producer.accept(chunk -> {
+                    try {
+                        for (T item : chunk) {
+                            gen.writeObject(item);
+                            if (ndjson) {
+                                gen.writeRaw('\n');
+                            }
+                        }
+                        gen.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                if (!ndjson) {
+                    gen.writeEndArray();
+                }
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(ndjson ? NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
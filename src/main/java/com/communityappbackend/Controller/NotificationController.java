@@ -4,9 +4,11 @@ import com.communityappbackend.DTO.NotificationDTO;
 import com.communityappbackend.Model.Notification;
 import com.communityappbackend.Service.NotificationService;
 import com.communityappbackend.Model.User;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -36,6 +38,15 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
 
+    // Push stream of new notifications (Server-Sent Events); replaces polling /me.
+    // On reconnect, send the Last-Event-ID header to receive what was missed.
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMyNotifications(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                            Authentication auth) {
+        User currentUser = (User) auth.getPrincipal();
+        return notificationService.openStream(currentUser.getUserId(), lastEventId);
+    }
+
     // Update notification read/unread status
     @PutMapping("/{notificationId}/read")
     public ResponseEntity<Notification> updateNotificationReadStatus(@PathVariable String notificationId,
@@ -1,29 +1,33 @@
 package com.communityappbackend.Controller;
 
+import com.communityappbackend.Service.HotImageCache;
 import com.communityappbackend.Service.ProfileImageService;
-import com.communityappbackend.Security.JwtUtils;
-import jakarta.annotation.Resource;
+import com.communityappbackend.Security.JwtVerifier;
+import com.communityappbackend.Security.VerifiedToken;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.UrlResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.IOException;
 
 @RestController
 public class ProfileImageController {
 
-    private static final String UPLOAD_DIR =
-            "C:\\Projects\\Community App\\community-app-backend\\src\\main\\java\\com\\communityappbackend\\Assets\\ProfileImages";
     @Autowired
     private ProfileImageService profileImageService;
 
     @Autowired
-    private JwtUtils jwtUtils;
+    private JwtVerifier jwtVerifier;
+
+    @Autowired
+    private HotImageCache hotImageCache;
+
+    @Autowired
+    private ImageResponder imageResponder;
 
     @PostMapping("/uploadProfileImage")
     public ResponseEntity<?> uploadProfileImage(HttpServletRequest request,
@@ -33,12 +37,13 @@ public class ProfileImageController {
             String token = (headerAuth != null && headerAuth.startsWith("Bearer "))
                     ? headerAuth.substring(7)
                     : null;
-            if (token == null || !jwtUtils.validateToken(token)) {
+            VerifiedToken verified = jwtVerifier.verify(token);
+            if (verified == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body("Invalid JWT Token");
             }
 
-            String userId = jwtUtils.getUserIdFromToken(token);
+            String userId = verified.userId();
             String message = profileImageService.uploadProfileImage(userId, file);
             return ResponseEntity.ok(message);
         } catch (IllegalArgumentException e) {
@@ -58,11 +63,12 @@ public class ProfileImageController {
             String token = (headerAuth != null && headerAuth.startsWith("Bearer "))
                     ? headerAuth.substring(7)
                     : null;
-            if (token == null || !jwtUtils.validateToken(token)) {
+            VerifiedToken verified = jwtVerifier.verify(token);
+            if (verified == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid JWT Token");
             }
 
-            String userId = jwtUtils.getUserIdFromToken(token);
+            String userId = verified.userId();
             String fileName = profileImageService.getProfileImage(userId);
             if (fileName != null && !fileName.isEmpty()) {
                 String imageUrl = "http://10.0.2.2:8080/ProfileImages/" + fileName;
@@ -77,41 +83,21 @@ public class ProfileImageController {
 
 
     /**
-     * 2) Serve the actual user profile image file at /api/user/image/{fileName}.
+     * 2) Serve the actual user profile image file at /image/{fileName}.
+     *    /ProfileImages/{fileName} is the older URL for the same files, kept for existing clients.
      *    By default, we won't require JWT here so Flutter can display the image.
      */
-    @GetMapping("/image/{fileName}")
-    public ResponseEntity<?> getUserImageFile(@PathVariable("fileName") String fileName) {
-        try {
-            // Build file path
-            Path filePath = Paths.get(UPLOAD_DIR).resolve(fileName).normalize();
-            if (!Files.exists(filePath)) {
-                return ResponseEntity.notFound().build();
-            }
-
-            // Create a resource for Spring to return
-            UrlResource resource = new UrlResource(filePath.toUri());
-            if (!resource.exists() || !resource.isReadable()) {
-                return ResponseEntity.notFound().build();
-            }
-
-            // Try to detect content type
-            String contentType = Files.probeContentType(filePath);
-            if (contentType == null) {
-                contentType = "application/octet-stream";
-            }
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType(contentType));
-
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(resource);
-
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Error reading file: " + e.getMessage());
+    @GetMapping({"/image/{fileName}", "/ProfileImages/{fileName:.+}"})
+    public void getUserImageFile(@PathVariable("fileName") String fileName,
+                                 HttpServletRequest request,
+                                 HttpServletResponse response) throws IOException {
+        Resource resource = hotImageCache.get(fileName);
+        if (resource == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
+        // A new avatar always gets a new key, so this one can be cached for good
+        imageResponder.write(resource, true, request, response);
     }
 
 }
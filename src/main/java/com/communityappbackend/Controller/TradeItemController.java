@@ -1,11 +1,19 @@
 package com.communityappbackend.Controller;
 
 import com.communityappbackend.DTO.ItemResponse;
+import com.communityappbackend.DTO.ItemSummaryResponse;
+import com.communityappbackend.Model.User;
+import com.communityappbackend.Repository.FeedSort;
+import com.communityappbackend.Service.ContentVersions;
 import com.communityappbackend.Service.TradeItemService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -14,29 +22,86 @@ import java.util.List;
 public class TradeItemController {
 
     private final TradeItemService tradeItemService;
+    private final ContentVersions contentVersions;
+    private final ObjectMapper objectMapper;
 
-    public TradeItemController(TradeItemService tradeItemService) {
+    public TradeItemController(TradeItemService tradeItemService, ContentVersions contentVersions,
+                               ObjectMapper objectMapper) {
         this.tradeItemService = tradeItemService;
+        this.contentVersions = contentVersions;
+        this.objectMapper = objectMapper;
     }
 
-    // GET /api/trade?categoryId={optional}
+    // GET /api/trade?categoryId=&near={city|province}&minPrice=&maxPrice=&sort={newest|price_asc|price_desc}
+    //                &limit=&cursor=   (all optional)
+    // The next page cursor comes back in the X-Next-Cursor header; reuse it with the same sort.
     @GetMapping
-    public List<ItemResponse> getAllActiveExceptUser(
+    public ResponseEntity<List<ItemSummaryResponse>> getAllActiveExceptUser(
             @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String near,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Authentication auth,
+            ServletWebRequest webRequest
+    ) {
+        User user = (User) auth.getPrincipal();
+        if (ConditionalGet.notModified(webRequest, contentVersions.feedETag(user.getUserId()))) {
+            return null;
+        }
+        return tradeItemService.getAllActiveExceptUser(auth, categoryId, near, minPrice, maxPrice, sort, cursor, limit)
+                .toResponseEntity();
+    }
+
+    // GET /api/trade/stream => the whole feed for the same filters (except near), streamed as it is read.
+    // Send "Accept: application/x-ndjson" for one JSON object per line.
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllActiveExceptUser(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String sort,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
             Authentication auth
     ) {
-        return tradeItemService.getAllActiveExceptUser(auth, categoryId);
+        User user = (User) auth.getPrincipal();
+        FeedSort.parse(sort); // reject a bad sort before the response starts
+        return JsonStreaming.<ItemSummaryResponse>stream(objectMapper, accept,
+                sink -> tradeItemService.streamActiveExceptUser(
+                        user.getUserId(), categoryId, minPrice, maxPrice, sort, sink));
+    }
+
+    // GET /api/trade/search?q={text}&limit={optional}&cursor={optional}
+    // Ranked by relevance; the next page cursor comes back in the X-Next-Cursor header.
+    @GetMapping("/search")
+    public ResponseEntity<List<ItemResponse>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Authentication auth
+    ) {
+        return tradeItemService.search(auth, q, cursor, limit).toResponseEntity();
     }
 
     // GET /api/trade/details/{itemId}
     @GetMapping("/details/{itemId}")
     public ResponseEntity<ItemResponse> getItemDetails(
-            @PathVariable String itemId
+            @PathVariable String itemId,
+            ServletWebRequest webRequest
     ) {
+        // Resolve the item first (served from the detail cache) so an unknown or deleted id
+        // is never answered with 304. The tag is read before the load so a concurrent change
+        // can only make it older than the body, never newer.
+        String etag = contentVersions.itemETag();
         ItemResponse item = tradeItemService.getItemDetails(itemId);
         if (item == null) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
+        if (ConditionalGet.notModified(webRequest, etag)) {
+            return null;
+        }
         return ResponseEntity.ok(item);
     }
 }
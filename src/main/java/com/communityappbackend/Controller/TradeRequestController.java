@@ -1,13 +1,20 @@
 package com.communityappbackend.Controller;
 
-import com.communityappbackend.DTO.ItemResponse;
+import com.communityappbackend.DTO.BulkTradeDecisionRequest;
+import com.communityappbackend.DTO.BulkTradeDecisionResult;
+import com.communityappbackend.DTO.CursorPage;
+import com.communityappbackend.DTO.ItemSummaryResponse;
 import com.communityappbackend.DTO.TradeRequestDTO;
 import com.communityappbackend.DTO.TradeRequestDetailedDTO;
 import com.communityappbackend.Model.TradeRequest;
+import com.communityappbackend.Model.User;
 import com.communityappbackend.Service.TradeRequestService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -16,9 +23,11 @@ import java.util.List;
 public class TradeRequestController {
 
     private final TradeRequestService tradeRequestService;
+    private final ObjectMapper objectMapper;
 
-    public TradeRequestController(TradeRequestService tradeRequestService) {
+    public TradeRequestController(TradeRequestService tradeRequestService, ObjectMapper objectMapper) {
         this.tradeRequestService = tradeRequestService;
+        this.objectMapper = objectMapper;
     }
 
     // 1) Create a new request
@@ -31,11 +40,17 @@ public class TradeRequestController {
         return ResponseEntity.ok(req);
     }
 
-    // 2) View all requests for items that I own
+    // 2) View requests for items that I own, newest first.
+    // Pass the X-Next-Cursor response header back as ?cursor= to get the next page.
     @GetMapping("/incoming")
-    public ResponseEntity<List<TradeRequest>> getIncoming(Authentication auth) {
-        List<TradeRequest> requests = tradeRequestService.getIncomingRequests(auth);
-        return ResponseEntity.ok(requests);
+    public ResponseEntity<List<TradeRequest>> getIncoming(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Authentication auth
+    ) {
+        CursorPage<TradeRequest> page = tradeRequestService.getIncomingRequests(auth, status, cursor, limit);
+        return page.toResponseEntity();
     }
 
     // 3) Approve a request (picking an item from the sender)
@@ -59,20 +74,61 @@ public class TradeRequestController {
         return ResponseEntity.ok(updated);
     }
 
-    // 5) Get a detailed list of incoming requests with optional filtering by status.
+    // 4b) Approve or reject many requests at once; the response has one result per request id
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BulkTradeDecisionResult>> bulkDecide(
+            @RequestBody BulkTradeDecisionRequest dto,
+            Authentication auth
+    ) {
+        return ResponseEntity.ok(tradeRequestService.bulkDecide(dto, auth));
+    }
+
+    // 5) Get a detailed page of incoming requests with optional filtering by status.
     @GetMapping("/incoming/detailed")
-    public List<TradeRequestDetailedDTO> getIncomingDetailed(@RequestParam(required = false) String status,
-                                                             Authentication auth) {
-        return tradeRequestService.getIncomingRequestsDetailed(auth, status);
+    public ResponseEntity<List<TradeRequestDetailedDTO>> getIncomingDetailed(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Authentication auth
+    ) {
+        CursorPage<TradeRequestDetailedDTO> page =
+                tradeRequestService.getIncomingRequestsDetailed(auth, status, cursor, limit);
+        return page.toResponseEntity();
     }
 
     // 6) Get the sender's items (public listings)
     @GetMapping("/sender/{userId}/items")
-    public ResponseEntity<List<ItemResponse>> getItemsBySender(
+    public ResponseEntity<List<ItemSummaryResponse>> getItemsBySender(
             @PathVariable String userId,
             Authentication auth
     ) {
-        List<ItemResponse> items = tradeRequestService.getItemsByOwner(userId);
+        List<ItemSummaryResponse> items = tradeRequestService.getItemsByOwner(userId);
         return ResponseEntity.ok(items);
     }
+
+    // 5b) Stream all detailed incoming requests instead of paging.
+    // Send "Accept: application/x-ndjson" for one JSON object per line.
+    @GetMapping("/incoming/detailed/stream")
+    public ResponseEntity<StreamingResponseBody> streamIncomingDetailed(
+            @RequestParam(required = false) String status,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            Authentication auth
+    ) {
+        User me = (User) auth.getPrincipal();
+        return JsonStreaming.<TradeRequestDetailedDTO>stream(objectMapper, accept,
+                sink -> tradeRequestService.streamIncomingRequestsDetailed(me.getUserId(), status, sink));
+    }
+
+    // 7) Get a detailed page of the requests I have sent, with optional filtering by status.
+    @GetMapping("/outgoing")
+    public ResponseEntity<List<TradeRequestDetailedDTO>> getOutgoing(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Authentication auth
+    ) {
+        CursorPage<TradeRequestDetailedDTO> page =
+                tradeRequestService.getOutgoingRequestsDetailed(auth, status, cursor, limit);
+        return page.toResponseEntity();
+    }
 }
@@ -9,5 +9,6 @@ import lombok.*;
 @Builder
 public class AuthResponse {
     private String message;
-    private String token;    // JWT
+    private String token;    // JWT (short-lived access token)
+    private String refreshToken; // opaque, single use: exchange at /api/auth/refresh
 }
\ No newline at end of file
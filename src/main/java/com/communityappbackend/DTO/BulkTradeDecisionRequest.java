@@ -0,0 +1,17 @@
+package com.communityappbackend.DTO;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkTradeDecisionRequest {
+    private List<String> requestIds;
+    private String decision;                  // "APPROVE" or "REJECT"
+    private Map<String, String> selectedItemIds; // optional, requestId -> item picked from the sender (APPROVE only)
+}
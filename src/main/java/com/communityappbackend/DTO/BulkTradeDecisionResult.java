@@ -0,0 +1,15 @@
+package com.communityappbackend.DTO;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkTradeDecisionResult {
+    private String requestId;
+    private boolean success;
+    private String status;   // resulting status when success is true
+    private String error;    // reason when success is false
+}
@@ -17,6 +17,7 @@ public class ItemResponse {
     private Double price;
     private Long categoryId;
     private List<String> images;
+    private List<String> thumbnails; // same order as images, resized for lists and grids
 
     private String status;
     private String createdAt;
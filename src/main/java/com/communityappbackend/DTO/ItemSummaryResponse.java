@@ -0,0 +1,33 @@
+// File: ItemSummaryResponse.java
+package com.communityappbackend.DTO;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import java.util.List;
+
+/**
+ * List/grid variant of ItemResponse: same field names, but without the description and
+ * owner contact details, and with only the first image.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemSummaryResponse {
+
+    private String itemId;
+    private String title;
+    private Double price;
+    private Long categoryId;
+    private List<String> images;   // first image only
+    private List<String> thumbnails; // resized copy of that image
+
+    private String status;
+    private String createdAt;
+
+    // Owner info (marketplace feed only)
+    private String ownerFullName;
+    private String ownerProfileImage;
+}
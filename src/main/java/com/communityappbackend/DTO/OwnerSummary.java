@@ -0,0 +1,18 @@
+package com.communityappbackend.DTO;
+
+import lombok.*;
+
+/**
+ * The owner fields shown next to a listing, cached per user id.
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+public class OwnerSummary {
+    private final String userId;
+    private final String fullName;
+    private final String email;
+    private final String phone;
+    private final String address;
+    private final String profileImageUrl;
+}
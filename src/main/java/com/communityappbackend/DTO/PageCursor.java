@@ -0,0 +1,77 @@
+package com.communityappbackend.DTO;
+
+import lombok.*;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Base64;
+
+/**
+ * Keyset (seek) cursor for paginated list endpoints.
+ * Holds the sort key of the last row of a page plus its id as a tie-breaker,
+ * and is handed to clients as an opaque URL-safe token.
+ */
+@Getter
+@AllArgsConstructor
+public class PageCursor {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private final String key;
+    private final String id;
+
+    public static PageCursor of(Timestamp createdAt, String id) {
+        return new PageCursor(String.valueOf(createdAt != null ? createdAt.getTime() : 0L), id);
+    }
+
+    public static PageCursor ofPrice(Double price, String id) {
+        return new PageCursor(String.valueOf(price != null ? price : 0.0), id);
+    }
+
+    public Timestamp timestamp() {
+        try {
+            return new Timestamp(Long.parseLong(key));
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    public Double price() {
+        try {
+            return Double.valueOf(key);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = key + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns null for a missing cursor (first page).
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            if (sep <= 0 || sep == raw.length() - 1) {
+                throw new IllegalArgumentException();
+            }
+            return new PageCursor(raw.substring(0, sep), raw.substring(sep + 1));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    public static int clampLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
@@ -1,6 +1,7 @@
 package com.communityappbackend.Exception;
 
 import com.communityappbackend.Exception.EmailAlreadyExistsException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,6 +14,22 @@ public class GlobalExceptionHandler {
         return ex.getMessage(); // You can also return a JSON response
     }
 
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<String> handlePasswordHashingBusy(PasswordHashingBusyException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
+    // Lock wait timeout or deadlock victim (CannotAcquireLockException and friends):
+    // nothing was changed, so the client can simply try again.
+    @ExceptionHandler(PessimisticLockingFailureException.class)
+    public ResponseEntity<String> handleLockFailure(PessimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("The request is being changed by someone else, please try again");
+    }
+
     @ExceptionHandler(RuntimeException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public String handleRuntime(RuntimeException ex) {
@@ -0,0 +1,11 @@
+package com.communityappbackend.Exception;
+
+/**
+ * Thrown when a refresh token is missing, unknown, expired, revoked or already exchanged.
+ * AuthTokenService.refresh does not roll back on it, so a reuse revocation still commits.
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
@@ -8,7 +8,13 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "items")
+@Table(name = "items", indexes = {
+        @Index(name = "idx_items_owner_created", columnList = "owner_id, created_at"),
+        @Index(name = "idx_items_status_category_created", columnList = "status, category_id, created_at"),
+        @Index(name = "idx_items_status_created", columnList = "status, created_at"),
+        @Index(name = "idx_items_status_category_price", columnList = "status, category_id, price"),
+        @Index(name = "idx_items_status_price", columnList = "status, price")
+})
 @Getter
 @Setter
 @NoArgsConstructor
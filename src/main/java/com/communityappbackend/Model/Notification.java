@@ -4,10 +4,14 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_user_created", columnList = "user_id, created_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -30,8 +34,9 @@ public class Notification {
     @Builder.Default
     private Boolean read = false;
 
+    // Set by the app (whole seconds, as the column stores them) so pushed events carry it
     @Column(name = "created_at", columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP",
-            insertable = false, updatable = false)
+            updatable = false)
     private Timestamp createdAt;
 
     @PrePersist
@@ -39,5 +44,12 @@ public class Notification {
         if (notificationId == null) {
             this.notificationId = UUID.randomUUID().toString();
         }
+        if (createdAt == null) {
+            this.createdAt = now();
+        }
+    }
+
+    public static Timestamp now() {
+        return Timestamp.from(Instant.now().truncatedTo(ChronoUnit.SECONDS));
     }
 }
@@ -0,0 +1,46 @@
+package com.communityappbackend.Model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.sql.Timestamp;
+
+/**
+ * A refresh token, stored as the SHA-256 of the opaque value handed to the client.
+ * Every rotation of one sign-in shares a family id, so reuse of an old token can
+ * revoke the whole chain.
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_family", columnList = "family_id"),
+        @Index(name = "idx_refresh_tokens_expires", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshToken {
+
+    @Id
+    @Column(name = "token_hash", columnDefinition = "CHAR(64)")
+    private String tokenHash;
+
+    @Column(name = "user_id", columnDefinition = "CHAR(36)", nullable = false)
+    private String userId;
+
+    @Column(name = "family_id", columnDefinition = "CHAR(36)", nullable = false)
+    private String familyId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Timestamp expiresAt;
+
+    // Set once the token has been exchanged for a new pair
+    @Column(name = "used", nullable = false)
+    @Builder.Default
+    private boolean used = false;
+
+    @Column(name = "revoked", nullable = false)
+    @Builder.Default
+    private boolean revoked = false;
+}
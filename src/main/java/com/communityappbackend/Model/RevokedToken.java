@@ -0,0 +1,29 @@
+package com.communityappbackend.Model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.sql.Timestamp;
+
+/**
+ * An access token (by jti) that was revoked before it expired. Rows are only needed
+ * until expires_at, after which the token is rejected anyway.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_expires", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevokedToken {
+
+    @Id
+    @Column(name = "jti", columnDefinition = "CHAR(36)")
+    private String jti;
+
+    @Column(name = "expires_at", nullable = false)
+    private Timestamp expiresAt;
+}
@@ -6,7 +6,10 @@ import java.sql.Timestamp;
 import java.util.UUID;
 
 @Entity
-@Table(name = "trade_requests")
+@Table(name = "trade_requests", indexes = {
+        @Index(name = "idx_trade_requests_item_status_created", columnList = "item_id, status, created_at"),
+        @Index(name = "idx_trade_requests_offered_by_created", columnList = "offered_by, created_at, request_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
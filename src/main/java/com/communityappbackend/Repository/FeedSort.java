@@ -0,0 +1,34 @@
+package com.communityappbackend.Repository;
+
+import com.communityappbackend.DTO.PageCursor;
+
+/**
+ * Sort orders of the marketplace feed. Each one has its own keyset column, so the cursor
+ * of a page only makes sense with the sort that produced it.
+ */
+public enum FeedSort {
+    NEWEST,
+    PRICE_ASC,
+    PRICE_DESC;
+
+    public static FeedSort parse(String value) {
+        if (value == null || value.isBlank()) {
+            return NEWEST;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("sort must be newest, price_asc or price_desc");
+        }
+    }
+
+    public boolean byPrice() {
+        return this != NEWEST;
+    }
+
+    public PageCursor cursorOf(ItemListRow item) {
+        return byPrice()
+                ? PageCursor.ofPrice(item.getPrice(), item.getItemId())
+                : PageCursor.of(item.getCreatedAt(), item.getItemId());
+    }
+}
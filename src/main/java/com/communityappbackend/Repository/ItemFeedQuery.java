@@ -0,0 +1,23 @@
+package com.communityappbackend.Repository;
+
+import com.communityappbackend.DTO.PageCursor;
+import lombok.*;
+
+/**
+ * Filters and keyset position for one page of the marketplace feed.
+ * Null fields are simply left out of the generated WHERE clause.
+ */
+@Getter
+@Builder
+public class ItemFeedQuery {
+    @Builder.Default
+    private final String status = "ACTIVE";
+    private final String excludeOwnerId;
+    private final Long categoryId;
+    private final Double minPrice;
+    private final Double maxPrice;
+    @Builder.Default
+    private final FeedSort sort = FeedSort.NEWEST;
+    private final PageCursor after;  // null for the first page
+    private final int limit;         // rows to fetch, including any look-ahead row
+}
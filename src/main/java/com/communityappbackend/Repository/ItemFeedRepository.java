@@ -0,0 +1,9 @@
+package com.communityappbackend.Repository;
+
+import java.util.List;
+
+public interface ItemFeedRepository {
+
+    // One feed page in the query's sort order, seeking past the cursor's (sort key, itemId) instead of using OFFSET.
+    List<ItemListRow> findFeedPage(ItemFeedQuery query);
+}
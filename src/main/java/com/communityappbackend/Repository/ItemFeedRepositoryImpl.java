@@ -0,0 +1,91 @@
+package com.communityappbackend.Repository;
+
+import com.communityappbackend.DTO.PageCursor;
+import com.communityappbackend.Model.Item;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ItemFeedRepositoryImpl implements ItemFeedRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<ItemListRow> findFeedPage(ItemFeedQuery query) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<ItemListRow> cq = cb.createQuery(ItemListRow.class);
+        Root<Item> item = cq.from(Item.class);
+        Path<Timestamp> createdAt = item.get("createdAt");
+        Path<String> itemId = item.get("itemId");
+        Path<Double> price = item.get("price");
+
+        // Only add predicates that are actually set, so MySQL can range-scan
+        // (status, category_id, created_at|price) or (status, created_at|price).
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(item.get("status"), query.getStatus()));
+        if (query.getExcludeOwnerId() != null) {
+            where.add(cb.notEqual(item.get("ownerId"), query.getExcludeOwnerId()));
+        }
+        if (query.getCategoryId() != null) {
+            where.add(cb.equal(item.get("categoryId"), query.getCategoryId()));
+        }
+        if (query.getMinPrice() != null) {
+            where.add(cb.greaterThanOrEqualTo(price, query.getMinPrice()));
+        }
+        if (query.getMaxPrice() != null) {
+            where.add(cb.lessThanOrEqualTo(price, query.getMaxPrice()));
+        }
+
+        PageCursor after = query.getAfter();
+        switch (query.getSort()) {
+            case PRICE_ASC -> {
+                // Unpriced items have no place in a price ordering
+                where.add(cb.isNotNull(price));
+                if (after != null) {
+                    Double p = after.price();
+                    where.add(cb.or(
+                            cb.greaterThan(price, p),
+                            cb.and(cb.equal(price, p), cb.greaterThan(itemId, after.getId()))
+                    ));
+                }
+                cq.orderBy(cb.asc(price), cb.asc(itemId));
+            }
+            case PRICE_DESC -> {
+                where.add(cb.isNotNull(price));
+                if (after != null) {
+                    Double p = after.price();
+                    where.add(cb.or(
+                            cb.lessThan(price, p),
+                            cb.and(cb.equal(price, p), cb.lessThan(itemId, after.getId()))
+                    ));
+                }
+                cq.orderBy(cb.desc(price), cb.desc(itemId));
+            }
+            default -> {
+                if (after != null) {
+                    Timestamp ts = after.timestamp();
+                    where.add(cb.or(
+                            cb.lessThan(createdAt, ts),
+                            cb.and(cb.equal(createdAt, ts), cb.lessThan(itemId, after.getId()))
+                    ));
+                }
+                cq.orderBy(cb.desc(createdAt), cb.desc(itemId));
+            }
+        }
+
+        // Only the columns a grid row needs; rows come back as unmanaged ItemListRows
+        cq.select(cb.construct(ItemListRow.class,
+                        itemId, item.get("ownerId"), item.get("title"), price,
+                        item.get("categoryId"), item.get("status"), createdAt))
+                .where(where.toArray(new Predicate[0]));
+
+        return em.createQuery(cq)
+                .setMaxResults(query.getLimit())
+                .getResultList();
+    }
+}
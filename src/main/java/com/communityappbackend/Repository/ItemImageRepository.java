@@ -2,6 +2,20 @@ package com.communityappbackend.Repository;
 
 import com.communityappbackend.Model.ItemImage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface ItemImageRepository extends JpaRepository<ItemImage, Long> {
+
+    // First (lowest id) image of each item, for list thumbnails, in one aggregated query
+    @Query("SELECT ii.item.itemId AS itemId, ii.imagePath AS imagePath FROM ItemImage ii " +
+            "WHERE ii.imageId IN (SELECT MIN(i2.imageId) FROM ItemImage i2 " +
+            "                     WHERE i2.item.itemId IN :itemIds GROUP BY i2.item.itemId)")
+    List<ItemImageView> findFirstImages(@Param("itemIds") Collection<String> itemIds);
+
+    // Stored images are shared by content; used before deleting one that a failed listing left behind
+    boolean existsByImagePath(String imagePath);
 }
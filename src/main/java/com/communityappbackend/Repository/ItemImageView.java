@@ -0,0 +1,6 @@
+package com.communityappbackend.Repository;
+
+public interface ItemImageView {
+    String getItemId();
+    String getImagePath();
+}
@@ -0,0 +1,21 @@
+package com.communityappbackend.Repository;
+
+import lombok.*;
+
+import java.sql.Timestamp;
+
+/**
+ * Column subset of items used by list/grid endpoints. Selected with a constructor expression,
+ * so rows are never managed entities and the description and images are never loaded.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemListRow {
+    private final String itemId;
+    private final String ownerId;
+    private final String title;
+    private final Double price;
+    private final Long categoryId;
+    private final String status;
+    private final Timestamp createdAt;
+}
@@ -0,0 +1,16 @@
+package com.communityappbackend.Repository;
+
+import java.sql.Timestamp;
+
+/**
+ * An item joined with its owner's region, used to build the location index.
+ */
+public interface ItemLocationView {
+    String getItemId();
+    String getOwnerId();
+    Long getCategoryId();
+    Double getPrice();
+    Timestamp getCreatedAt();
+    String getCity();
+    String getProvince();
+}
@@ -1,19 +1,70 @@
 package com.communityappbackend.Repository;
 
 import com.communityappbackend.Model.Item;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface ItemRepository extends JpaRepository<Item, String> {
+public interface ItemRepository extends JpaRepository<Item, String>, ItemFeedRepository {
 
     List<Item> findByOwnerId(String ownerId);
 
-    // new: find all active items except logged user
-    List<Item> findByStatusAndOwnerIdNot(String status, String ownerId);
+    @Query("SELECT new com.communityappbackend.Repository.ItemListRow(" +
+            "i.itemId, i.ownerId, i.title, i.price, i.categoryId, i.status, i.createdAt) " +
+            "FROM Item i WHERE i.ownerId = :ownerId ORDER BY i.createdAt DESC, i.itemId DESC")
+    List<ItemListRow> findListRowsByOwnerId(@Param("ownerId") String ownerId);
+
+    // Keyset-scrolled variant of findListRowsByOwnerId, used for streaming large accounts
+    @Query("SELECT new com.communityappbackend.Repository.ItemListRow(" +
+            "i.itemId, i.ownerId, i.title, i.price, i.categoryId, i.status, i.createdAt) " +
+            "FROM Item i WHERE i.ownerId = :ownerId " +
+            "AND (:cursorTs IS NULL OR i.createdAt < :cursorTs " +
+            "     OR (i.createdAt = :cursorTs AND i.itemId < :cursorId)) " +
+            "ORDER BY i.createdAt DESC, i.itemId DESC")
+    List<ItemListRow> findListRowsByOwnerIdPage(@Param("ownerId") String ownerId,
+                                                @Param("cursorTs") Timestamp cursorTs,
+                                                @Param("cursorId") String cursorId,
+                                                Pageable pageable);
+
+    @Query("SELECT new com.communityappbackend.Repository.ItemListRow(" +
+            "i.itemId, i.ownerId, i.title, i.price, i.categoryId, i.status, i.createdAt) " +
+            "FROM Item i WHERE i.itemId IN :itemIds")
+    List<ItemListRow> findListRowsByItemIdIn(@Param("itemIds") Collection<String> itemIds);
+
+    // Batch load for DTO assembly: items plus their images in a single round trip
+    @Query("SELECT DISTINCT i FROM Item i LEFT JOIN FETCH i.images WHERE i.itemId IN :ids")
+    List<Item> findAllWithImagesByItemIdIn(@Param("ids") Collection<String> ids);
 
-    // new: same but with category
-    List<Item> findByStatusAndOwnerIdNotAndCategoryId(String status, String ownerId, Long categoryId);
+    @Query("SELECT i FROM Item i LEFT JOIN FETCH i.images WHERE i.itemId = :itemId")
+    Optional<Item> findWithImagesByItemId(@Param("itemId") String itemId);
 
+    // Row locks on those of the items that ownerId owns; returns the ids it locked. Decisions on
+    // trade requests take these first so they queue up behind each other instead of locking
+    // request rows in opposite orders. The ORDER BY keeps lock acquisition order stable.
+    @Query(value = "SELECT item_id FROM items WHERE item_id IN (:itemIds) AND owner_id = :ownerId " +
+            "ORDER BY item_id FOR UPDATE", nativeQuery = true)
+    List<String> lockOwnedById(@Param("ownerId") String ownerId,
+                               @Param("itemIds") Collection<String> itemIds);
 
+    // Search index rebuild: walks items of a status in item_id order, one batch at a time
+    @Query("SELECT i.itemId AS itemId, i.ownerId AS ownerId, i.title AS title, i.description AS description " +
+            "FROM Item i WHERE i.status = :status AND i.itemId > :afterId ORDER BY i.itemId")
+    List<ItemTextView> findTextBatch(@Param("status") String status,
+                                     @Param("afterId") String afterId,
+                                     Pageable pageable);
 
+    // Location index rebuild: items of a status with their owner's region, in item_id batches
+    @Query("SELECT i.itemId AS itemId, i.ownerId AS ownerId, i.categoryId AS categoryId, i.price AS price, " +
+            "i.createdAt AS createdAt, u.city AS city, u.province AS province " +
+            "FROM Item i JOIN User u ON u.userId = i.ownerId " +
+            "WHERE i.status = :status AND i.itemId > :afterId ORDER BY i.itemId")
+    List<ItemLocationView> findLocationBatch(@Param("status") String status,
+                                             @Param("afterId") String afterId,
+                                             Pageable pageable);
 }
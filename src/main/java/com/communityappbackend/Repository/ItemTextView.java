@@ -0,0 +1,11 @@
+package com.communityappbackend.Repository;
+
+/**
+ * Just the columns the search index needs; avoids loading full Item entities at startup.
+ */
+public interface ItemTextView {
+    String getItemId();
+    String getOwnerId();
+    String getTitle();
+    String getDescription();
+}
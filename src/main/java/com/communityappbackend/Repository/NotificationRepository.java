@@ -1,9 +1,21 @@
 package com.communityappbackend.Repository;
 
 import com.communityappbackend.Model.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.sql.Timestamp;
 import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<Notification, String> {
     List<Notification> findByUserId(String userId);
+
+    // Replay for a reconnecting stream, oldest first (uses idx_notifications_user_created)
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId AND n.createdAt >= :since " +
+            "ORDER BY n.createdAt ASC, n.notificationId ASC")
+    List<Notification> findSince(@Param("userId") String userId,
+                                 @Param("since") Timestamp since,
+                                 Pageable pageable);
 }
@@ -0,0 +1,36 @@
+package com.communityappbackend.Repository;
+
+import com.communityappbackend.Model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    // Compare-and-set: 1 only for the first exchange of a live token, 0 on reuse or after revocation
+    @Transactional
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.used = true " +
+            "WHERE r.tokenHash = :tokenHash AND r.used = false AND r.revoked = false AND r.expiresAt > :now")
+    int markUsed(@Param("tokenHash") String tokenHash, @Param("now") Timestamp now);
+
+    // Locks every token of the family and returns how many are revoked. Rotation takes this first,
+    // so a concurrent rotation, reuse or logout of the same sign-in waits for it to commit.
+    @Query(value = "SELECT COUNT(CASE WHEN revoked THEN 1 END) FROM refresh_tokens " +
+            "WHERE family_id = :familyId FOR UPDATE", nativeQuery = true)
+    long lockFamily(@Param("familyId") String familyId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.familyId = :familyId")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") Timestamp now);
+}
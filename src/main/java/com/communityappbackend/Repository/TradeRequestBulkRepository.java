@@ -0,0 +1,10 @@
+package com.communityappbackend.Repository;
+
+import java.util.Map;
+
+public interface TradeRequestBulkRepository {
+
+    // PENDING -> ACCEPTED for every key in one UPDATE, setting receiver_selected_item_id from the
+    // map value where there is one. Requests that are no longer pending are left untouched.
+    int acceptAllPending(Map<String, String> selectedItemIds);
+}
@@ -0,0 +1,47 @@
+package com.communityappbackend.Repository;
+
+import com.communityappbackend.Model.TradeRequest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+
+import java.util.Map;
+
+public class TradeRequestBulkRepositoryImpl implements TradeRequestBulkRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public int acceptAllPending(Map<String, String> selectedItemIds) {
+        if (selectedItemIds.isEmpty()) {
+            return 0;
+        }
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaUpdate<TradeRequest> update = cb.createCriteriaUpdate(TradeRequest.class);
+        Root<TradeRequest> request = update.from(TradeRequest.class);
+        Path<String> requestId = request.get("requestId");
+        Path<String> selected = request.get("receiverSelectedItemId");
+
+        // SET receiver_selected_item_id = CASE request_id WHEN ? THEN ? ... ELSE receiver_selected_item_id END
+        boolean anySelected = false;
+        CriteriaBuilder.SimpleCase<String, String> selectedCase = cb.selectCase(requestId);
+        for (Map.Entry<String, String> e : selectedItemIds.entrySet()) {
+            if (e.getValue() != null) {
+                selectedCase.when(e.getKey(), e.getValue());
+                anySelected = true;
+            }
+        }
+        update.set(request.<String>get("status"), "ACCEPTED");
+        if (anySelected) {
+            update.set(selected, selectedCase.otherwise(selected));
+        }
+        update.where(requestId.in(selectedItemIds.keySet()), cb.equal(request.get("status"), "PENDING"));
+
+        // Same contract as the @Modifying(flushAutomatically, clearAutomatically) updates
+        em.flush();
+        int updated = em.createQuery(update).executeUpdate();
+        em.clear();
+        return updated;
+    }
+}
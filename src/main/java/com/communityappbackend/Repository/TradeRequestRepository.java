@@ -1,9 +1,92 @@
 package com.communityappbackend.Repository;
 
 import com.communityappbackend.Model.TradeRequest;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+
+public interface TradeRequestRepository extends JpaRepository<TradeRequest, String>, TradeRequestBulkRepository {
+
+    /**
+     * Requests made on items owned by ownerId, newest first.
+     * Keyset pagination: pass the (createdAt, requestId) of the last row seen, or nulls for the first page.
+     */
+    @Query("SELECT r FROM TradeRequest r JOIN Item i ON i.itemId = r.itemId " +
+            "WHERE i.ownerId = :ownerId " +
+            "AND (:status IS NULL OR r.status = :status) " +
+            "AND (:cursorTs IS NULL OR r.createdAt < :cursorTs " +
+            "     OR (r.createdAt = :cursorTs AND r.requestId < :cursorId)) " +
+            "ORDER BY r.createdAt DESC, r.requestId DESC")
+    List<TradeRequest> findIncomingPage(@Param("ownerId") String ownerId,
+                                        @Param("status") String status,
+                                        @Param("cursorTs") Timestamp cursorTs,
+                                        @Param("cursorId") String cursorId,
+                                        Pageable pageable);
+
+    /**
+     * Requests sent by offeredBy, newest first, with the same keyset contract as findIncomingPage.
+     */
+    @Query("SELECT r FROM TradeRequest r " +
+            "WHERE r.offeredBy = :offeredBy " +
+            "AND (:status IS NULL OR r.status = :status) " +
+            "AND (:cursorTs IS NULL OR r.createdAt < :cursorTs " +
+            "     OR (r.createdAt = :cursorTs AND r.requestId < :cursorId)) " +
+            "ORDER BY r.createdAt DESC, r.requestId DESC")
+    List<TradeRequest> findOutgoingPage(@Param("offeredBy") String offeredBy,
+                                        @Param("status") String status,
+                                        @Param("cursorTs") Timestamp cursorTs,
+                                        @Param("cursorId") String cursorId,
+                                        Pageable pageable);
+
+    @Query("SELECT r.itemId FROM TradeRequest r WHERE r.requestId = :requestId")
+    Optional<String> findItemIdByRequestId(@Param("requestId") String requestId);
+
+    /**
+     * Compare-and-set PENDING -> ACCEPTED in a single statement.
+     * Returns 0 if the request does not exist or was already decided.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE TradeRequest r SET r.status = 'ACCEPTED', r.receiverSelectedItemId = :selectedItemId " +
+            "WHERE r.requestId = :requestId AND r.status = 'PENDING'")
+    int acceptIfPending(@Param("requestId") String requestId,
+                        @Param("selectedItemId") String selectedItemId);
+
+    /**
+     * Compare-and-set PENDING -> REJECTED in a single statement.
+     * Returns 0 if the request does not exist or was already decided.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE TradeRequest r SET r.status = 'REJECTED' " +
+            "WHERE r.requestId = :requestId AND r.status = 'PENDING'")
+    int rejectIfPending(@Param("requestId") String requestId);
+
+    // Locks the remaining pending offers on an item so they can be rejected once another one is accepted.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM TradeRequest r " +
+            "WHERE r.itemId = :itemId AND r.status = 'PENDING' AND r.requestId <> :acceptedId")
+    List<TradeRequest> findOtherPendingForUpdate(@Param("itemId") String itemId,
+                                                 @Param("acceptedId") String acceptedId);
+
+    // Bulk PENDING -> REJECTED; requests that are no longer pending are left untouched.
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE TradeRequest r SET r.status = 'REJECTED' " +
+            "WHERE r.requestId IN :requestIds AND r.status = 'PENDING'")
+    int rejectAllPending(@Param("requestIds") Collection<String> requestIds);
 
-public interface TradeRequestRepository extends JpaRepository<TradeRequest, String> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM TradeRequest r WHERE r.requestId IN :requestIds ORDER BY r.requestId")
+    List<TradeRequest> findAllByIdForUpdate(@Param("requestIds") Collection<String> requestIds);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM TradeRequest r WHERE r.itemId IN :itemIds AND r.status = 'PENDING'")
+    List<TradeRequest> findPendingOnItemsForUpdate(@Param("itemIds") Collection<String> itemIds);
 }
@@ -5,6 +5,8 @@ import com.communityappbackend.Model.UserProfileImage;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +16,15 @@ public interface UserProfileImageRepository extends JpaRepository<UserProfileIma
      * wrapped in an Optional. Returns Optional.empty() if not found.
      */
     Optional<UserProfileImage> findByUserId(String userId);
+
+    /**
+     * Batch variant of findByUserId for loading many owners' avatars at once.
+     */
+    List<UserProfileImage> findByUserIdIn(Collection<String> userIds);
+
+    /**
+     * Stored images are shared by content, so a file may only be removed
+     * when no profile references its key any more.
+     */
+    boolean existsByImagePath(String imagePath);
 }
@@ -3,8 +3,18 @@ package com.communityappbackend.Repository;
 
 import com.communityappbackend.Model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface UserRepository extends JpaRepository<User, String> {
     boolean existsByEmail(String email);
     User findByEmail(String email);
+
+    // Swaps the hash only if it is still the one that was verified (no lost password change)
+    @Modifying
+    @Query("UPDATE User u SET u.passwordHash = :newHash WHERE u.userId = :userId AND u.passwordHash = :oldHash")
+    int replacePasswordHash(@Param("userId") String userId,
+                            @Param("oldHash") String oldHash,
+                            @Param("newHash") String newHash);
 }
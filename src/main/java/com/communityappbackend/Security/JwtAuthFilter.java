@@ -1,8 +1,6 @@
 package com.communityappbackend.Security;
 
 import com.communityappbackend.Model.User;
-import com.communityappbackend.Repository.UserRepository;
-import io.jsonwebtoken.ExpiredJwtException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -21,10 +19,10 @@ import java.io.IOException;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     @Autowired
-    private JwtUtils jwtUtils;
+    private JwtVerifier jwtVerifier;
 
     @Autowired
-    private UserRepository userRepository;
+    private PrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -32,10 +30,11 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
         try {
             String token = parseJwt(request);
-            if (token != null && jwtUtils.validateToken(token)) {
-                // Get user from token
-                String userId = jwtUtils.getUserIdFromToken(token);
-                User user = userRepository.findById(userId).orElse(null);
+            // One signature check and parse per token (repeat requests are served from cache)
+            VerifiedToken verified = jwtVerifier.verify(token);
+            if (verified != null) {
+                // Get user from token (cached; no users-table read on most requests)
+                User user = principalCache.get(verified.userId());
 
                 if (user != null) {
                     // Here you could create a UsernamePasswordAuthenticationToken
@@ -46,8 +45,6 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
             }
-        } catch (ExpiredJwtException e) {
-            // Token expired, handle as needed
         } catch (Exception e) {
             // Token invalid, handle as needed
         }
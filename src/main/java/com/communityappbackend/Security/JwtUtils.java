@@ -2,49 +2,61 @@ package com.communityappbackend.Security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtUtils {
 
+    // Refresh token family (one per sign-in), so revoking the sign-in also ends its access tokens
+    static final String FAMILY_CLAIM = "fid";
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
-    private long expiration; // e.g. 3600000 ms = 1 hour
+    private long expiration; // e.g. 900000 ms = 15 minutes
+
+    @Autowired
+    private JwtVerifier jwtVerifier;
 
-    public String generateToken(String userId) {
-        Key key = Keys.hmacShaKeyFor(secret.getBytes());
+    private Key key; // built once from the secret
+
+    @PostConstruct
+    void initKey() {
+        key = Keys.hmacShaKeyFor(secret.getBytes());
+    }
+
+    public String generateToken(String userId, String familyId) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
 
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString()) // jti, so the token can be revoked
                 .setSubject(userId)
+                .claim(FAMILY_CLAIM, familyId)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    // Prefer JwtVerifier.verify, which checks and reads the token in one step.
     public String getUserIdFromToken(String token) {
-        Key key = Keys.hmacShaKeyFor(secret.getBytes());
-        Claims claims = Jwts.parserBuilder().setSigningKey(key).build()
-                .parseClaimsJws(token).getBody();
-        return claims.getSubject();
+        VerifiedToken verified = jwtVerifier.verify(token);
+        if (verified == null) {
+            throw new JwtException("Invalid JWT token");
+        }
+        return verified.userId();
     }
 
     public boolean validateToken(String token) {
-        try {
-            Key key = Keys.hmacShaKeyFor(secret.getBytes());
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
-        } catch (JwtException ex) {
-            // ex: ExpiredJwtException, MalformedJwtException etc.
-            return false;
-        }
+        return jwtVerifier.verify(token) != null;
     }
 }
@@ -0,0 +1,119 @@
+package com.communityappbackend.Security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks access tokens with a signing key and parser built once at startup.
+ *
+ * Each token is verified and parsed a single time; the result is kept in a small cache keyed
+ * by the SHA-256 of the token, so the follow-up requests a client makes with the same token
+ * skip the HMAC check and JSON parsing. An entry expires at the token's own exp, so an expired
+ * token is never accepted from the cache. Revoked token ids (see RevokedTokens) are rejected
+ * on every call, as are tokens whose sign-in was revoked. Hit/miss counts are published with cache=jwtVerified.
+ */
+@Component
+public class JwtVerifier {
+
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> verified;
+    private final RevokedTokens revokedTokens;
+
+    public JwtVerifier(@Value("${jwt.secret}") String secret,
+                       @Value("${jwt.verified-cache.max-size:10000}") long maxSize,
+                       MeterRegistry meterRegistry,
+                       RevokedTokens revokedTokens) {
+        this.revokedTokens = revokedTokens;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(secret.getBytes()))
+                .build();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                        long millisLeft = token.expiresAt().toEpochMilli() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millisLeft));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken token, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken token, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "jwtVerified");
+    }
+
+    /**
+     * Returns the token's contents, or null when it is malformed, badly signed, expired or revoked.
+     */
+    public VerifiedToken verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        String cacheKey = sha256(token);
+        VerifiedToken result = verified.getIfPresent(cacheKey);
+        if (result == null) {
+            result = parse(token);
+            if (result == null) {
+                return null;
+            }
+            verified.put(cacheKey, result);
+        }
+        // Checked on every call, cached or not: revocation can happen after the token was cached
+        return revokedTokens.isRevoked(result) ? null : result;
+    }
+
+    private VerifiedToken parse(String token) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (claims.getSubject() == null || claims.getExpiration() == null) {
+                return null;
+            }
+            return new VerifiedToken(
+                    claims.getSubject(),
+                    claims.getId(),
+                    claims.get(JwtUtils.FAMILY_CLAIM, String.class),
+                    claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                    claims.getExpiration().toInstant());
+        } catch (JwtException | IllegalArgumentException e) {
+            // ex: ExpiredJwtException, MalformedJwtException, SignatureException
+            return null;
+        }
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
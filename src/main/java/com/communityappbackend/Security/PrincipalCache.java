@@ -0,0 +1,98 @@
+package com.communityappbackend.Security;
+
+import com.communityappbackend.Model.User;
+import com.communityappbackend.Repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The authenticated principal for a user id, so JwtAuthFilter doesn't read the users table
+ * on every request.
+ *
+ * Entries are copies of the User row without the password hash; callers that cast
+ * auth.getPrincipal() to User keep working, but must not save it back.
+ *
+ * Staleness is handled with versions rather than just eviction: every load is stamped with
+ * the generation it started in, and {@link #bumpVersion} records a newer generation for the
+ * user. An entry older than its user's last bump is reloaded, including one whose load was
+ * already running when the profile changed. Bump records live as long as an entry could, so
+ * both maps stay bounded. Hit/miss counts are published with cache=principals.
+ */
+@Component
+public class PrincipalCache {
+
+    private record Entry(User user, long version) {
+    }
+
+    private final UserRepository userRepository;
+    private final Cache<String, Entry> principals;
+    private final Cache<String, Long> bumpedAt;
+    private final AtomicLong generation = new AtomicLong();
+
+    public PrincipalCache(UserRepository userRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${security.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${security.principal-cache.ttl:PT5M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.bumpedAt = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "principals");
+    }
+
+    /**
+     * Returns the principal for the user, or null if the user doesn't exist.
+     */
+    public User get(String userId) {
+        Entry entry = principals.getIfPresent(userId);
+        if (entry != null && !isStale(userId, entry)) {
+            return entry.user();
+        }
+
+        long version = generation.get(); // taken before reading, so a concurrent bump wins
+        User user = userRepository.findById(userId).map(PrincipalCache::principalCopy).orElse(null);
+        if (user != null) {
+            principals.put(userId, new Entry(user, version));
+        }
+        return user;
+    }
+
+    /**
+     * Call after any change to a user's row; principals loaded before it are refreshed on next use.
+     */
+    public void bumpVersion(String userId) {
+        bumpedAt.put(userId, generation.incrementAndGet());
+        principals.invalidate(userId);
+    }
+
+    private boolean isStale(String userId, Entry entry) {
+        Long bumped = bumpedAt.getIfPresent(userId);
+        return bumped != null && entry.version() < bumped;
+    }
+
+    private static User principalCopy(User user) {
+        return User.builder()
+                .userId(user.getUserId())
+                .fullName(user.getFullName())
+                .email(user.getEmail())
+                .phone(user.getPhone())
+                .address(user.getAddress())
+                .city(user.getCity())
+                .province(user.getProvince())
+                .isVerified(user.getIsVerified())
+                .createdAt(user.getCreatedAt())
+                .build(); // no password hash
+    }
+}
@@ -0,0 +1,156 @@
+package com.communityappbackend.Security;
+
+import com.communityappbackend.Config.RateLimitProperties;
+import com.communityappbackend.Model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket rate limiting per endpoint group, keyed by user id (or client IP).
+ *
+ * Each bucket is a single AtomicLong holding the GCRA "theoretical arrival time": a request
+ * is allowed when pushing that time one emission interval ahead keeps it within capacity
+ * intervals of now, and the update is a lock-free compare-and-set. Buckets live in a Caffeine
+ * map (lock-striped, no global lock) and are dropped after rate-limit.idle-timeout without use.
+ *
+ * Groups keyed by ip use request.getRemoteAddr(). Behind a proxy that is the proxy's address,
+ * so server.forward-headers-strategy must be set for X-Forwarded-For to be applied.
+ *
+ * Runs after JwtAuthFilter so the user id is known. Rejections get 429 with Retry-After and
+ * are counted in http.rate_limit.rejected (tag group).
+ *
+ * Created in SecurityConfig rather than as a @Component, so Boot doesn't also register it
+ * as a plain servlet filter.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private record Rule(String group, PathPattern pattern, String prefix, long intervalNanos, long burstNanos,
+                        RateLimitProperties.Key key, Counter rejected) {
+
+        // "/a/b/**" patterns (all of the shipped config) are matched by string prefix,
+        // skipping PathContainer parsing on the hot path
+        boolean matches(String path) {
+            if (prefix != null) {
+                return path.startsWith(prefix)
+                        && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/');
+            }
+            return pattern.matches(PathContainer.parsePath(path));
+        }
+    }
+
+    private final List<Rule> rules;
+    private final Cache<String, AtomicLong> buckets;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        List<Rule> parsed = new ArrayList<>();
+        properties.getGroups().forEach((name, group) -> {
+            long periodNanos = group.getPeriod().toNanos();
+            int capacity = Math.max(1, group.getCapacity());
+            long interval = Math.max(1, periodNanos / capacity);
+            Counter rejected = Counter.builder("http.rate_limit.rejected").tag("group", name).register(meterRegistry);
+            for (String path : group.getPaths()) {
+                PathPattern pattern = PathPatternParser.defaultInstance.parse(path);
+                String prefix = path.endsWith("/**") && path.indexOf('*') == path.length() - 2
+                        && path.indexOf('{') < 0
+                        ? path.substring(0, path.length() - 3)
+                        : null;
+                parsed.add(new Rule(name, pattern, prefix,
+                        interval, interval * capacity, group.getKey(), rejected));
+            }
+        });
+        // Most specific pattern first, so /api/auth/** wins over /api/**
+        parsed.sort(Comparator.comparing(Rule::pattern, PathPattern.SPECIFICITY_COMPARATOR));
+        this.rules = List.copyOf(parsed);
+
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(properties.getIdleTimeout())
+                .maximumSize(properties.getMaxBuckets())
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Rule rule = match(request);
+        if (rule != null) {
+            String bucketKey = rule.group() + '|' + clientKey(rule, request);
+            long waitNanos = acquire(buckets.get(bucketKey, k -> new AtomicLong(Long.MIN_VALUE)), rule);
+            if (waitNanos > 0) {
+                rule.rejected().increment();
+                long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+                response.setContentType("text/plain;charset=UTF-8");
+                response.getWriter().write("Too many requests, please retry later");
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Takes one token. Returns 0 when allowed, otherwise how long until a token is available.
+     */
+    private static long acquire(AtomicLong theoreticalArrival, Rule rule) {
+        return acquire(theoreticalArrival, rule.intervalNanos(), rule.burstNanos(), System.nanoTime());
+    }
+
+    static long acquire(AtomicLong theoreticalArrival, long intervalNanos, long burstNanos, long now) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long next = Math.max(tat, now) + intervalNanos;
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private Rule match(HttpServletRequest request) {
+        if (rules.isEmpty()) {
+            return null;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Rule rule : rules) {
+            if (rule.matches(path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private static String clientKey(Rule rule, HttpServletRequest request) {
+        if (rule.key() == RateLimitProperties.Key.USER) {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            if (auth != null && auth.getPrincipal() instanceof User user) {
+                return "u:" + user.getUserId();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,90 @@
+package com.communityappbackend.Security;
+
+import com.communityappbackend.Model.RevokedToken;
+import com.communityappbackend.Repository.RevokedTokenRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ids (jti) of access tokens revoked before their expiry, checked on every request.
+ * Revoking a sign-in adds its refresh token family id, which every access token issued to that
+ * sign-in carries; family ids are UUIDs like jtis, so both share the set and the table.
+ *
+ * The set lives in memory so the check is a hash lookup, not a query. Each id drops out when
+ * its token would have expired anyway, so the set only ever holds revocations of live tokens.
+ * The revoked_tokens table is the durable copy: written on revoke, read back at startup.
+ * A hash set is used rather than a Bloom filter: it stays small for the same reason, and it
+ * has no false positives that would log out unrelated users.
+ */
+@Component
+public class RevokedTokens {
+
+    private static final Logger log = LoggerFactory.getLogger(RevokedTokens.class);
+
+    private final RevokedTokenRepository revokedTokenRepo;
+    private final Cache<String, Instant> revoked = Caffeine.newBuilder()
+            .expireAfter(new Expiry<String, Instant>() {
+                @Override
+                public long expireAfterCreate(String jti, Instant expiresAt, long currentTime) {
+                    long millisLeft = expiresAt.toEpochMilli() - System.currentTimeMillis();
+                    return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millisLeft));
+                }
+
+                @Override
+                public long expireAfterUpdate(String jti, Instant expiresAt, long currentTime, long currentDuration) {
+                    return expireAfterCreate(jti, expiresAt, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String jti, Instant expiresAt, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+
+    public RevokedTokens(RevokedTokenRepository revokedTokenRepo) {
+        this.revokedTokenRepo = revokedTokenRepo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Timestamp now = Timestamp.from(Instant.now());
+        int purged = revokedTokenRepo.deleteExpired(now);
+        int loaded = 0;
+        for (RevokedToken row : revokedTokenRepo.findByExpiresAtAfter(now)) {
+            revoked.put(row.getJti(), row.getExpiresAt().toInstant());
+            loaded++;
+        }
+        log.info("Loaded {} revoked token ids ({} expired rows removed)", loaded, purged);
+    }
+
+    public boolean isRevoked(String jti) {
+        return jti != null && revoked.getIfPresent(jti) != null;
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        return isRevoked(token.tokenId()) || isRevoked(token.familyId());
+    }
+
+    // jti may also be a family id; expiresAt is then when the last access token of that sign-in expires
+    public void revoke(String jti, Instant expiresAt) {
+        if (jti == null || !expiresAt.isAfter(Instant.now())) {
+            return; // tokens without an id predate revocation; expired ones are rejected anyway
+        }
+        revokedTokenRepo.save(RevokedToken.builder()
+                .jti(jti)
+                .expiresAt(Timestamp.from(expiresAt))
+                .build());
+        revoked.put(jti, expiresAt);
+    }
+}
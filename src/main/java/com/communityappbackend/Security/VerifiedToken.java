@@ -0,0 +1,10 @@
+package com.communityappbackend.Security;
+
+import java.time.Instant;
+
+/**
+ * The parts of an access token the app uses, read once when its signature is checked.
+ * familyId is the sign-in (refresh token family) the token was issued to; null for older tokens.
+ */
+public record VerifiedToken(String userId, String tokenId, String familyId, Instant issuedAt, Instant expiresAt) {
+}
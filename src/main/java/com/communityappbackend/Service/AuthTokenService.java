@@ -0,0 +1,150 @@
+package com.communityappbackend.Service;
+
+import com.communityappbackend.DTO.AuthResponse;
+import com.communityappbackend.Exception.InvalidRefreshTokenException;
+import com.communityappbackend.Model.RefreshToken;
+import com.communityappbackend.Repository.RefreshTokenRepository;
+import com.communityappbackend.Security.JwtUtils;
+import com.communityappbackend.Security.RevokedTokens;
+import com.communityappbackend.Security.VerifiedToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues access + refresh token pairs, rotates refresh tokens and handles logout.
+ *
+ * Refresh tokens are random 256-bit values; only their SHA-256 is stored. Each one can be
+ * exchanged exactly once. Presenting one that was already exchanged means it leaked (or the
+ * client is replaying), so every token of that sign-in is revoked and the user must sign in again.
+ * Access tokens carry the sign-in's family id, so revoking the family ends them as well.
+ */
+@Service
+public class AuthTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthTokenService.class);
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final JwtUtils jwtUtils;
+    private final RefreshTokenRepository refreshTokenRepo;
+    private final RevokedTokens revokedTokens;
+    private final Duration refreshTtl;
+    private final Duration accessTtl;
+
+    public AuthTokenService(JwtUtils jwtUtils,
+                            RefreshTokenRepository refreshTokenRepo,
+                            RevokedTokens revokedTokens,
+                            @Value("${jwt.refresh-expiration:P30D}") Duration refreshTtl,
+                            @Value("${jwt.expiration}") long accessTtlMillis) {
+        this.jwtUtils = jwtUtils;
+        this.refreshTokenRepo = refreshTokenRepo;
+        this.revokedTokens = revokedTokens;
+        this.refreshTtl = refreshTtl;
+        this.accessTtl = Duration.ofMillis(accessTtlMillis);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void purgeExpired() {
+        refreshTokenRepo.deleteExpired(Timestamp.from(Instant.now()));
+    }
+
+    // New sign-in: fresh access token and the first refresh token of a new family
+    public AuthResponse issue(String userId, String message) {
+        return issuePair(userId, UUID.randomUUID().toString(), message);
+    }
+
+    /**
+     * Exchanges a refresh token for a new pair in one transaction: the old token is marked used
+     * and its successor saved together. A reuse revocation commits even though the call fails.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public AuthResponse refresh(String rawRefreshToken) {
+        if (rawRefreshToken == null || rawRefreshToken.isBlank()) {
+            throw new InvalidRefreshTokenException("Refresh token is required");
+        }
+        String tokenHash = sha256Hex(rawRefreshToken);
+        RefreshToken stored = refreshTokenRepo.findById(tokenHash)
+                .orElseThrow(() -> new InvalidRefreshTokenException("Invalid refresh token"));
+
+        // 1) Lock the sign-in's tokens. Two requests presenting the same token now run one after
+        //    the other, so the loser's revocation also covers the token the winner saved.
+        if (refreshTokenRepo.lockFamily(stored.getFamilyId()) > 0) {
+            throw new InvalidRefreshTokenException("Invalid refresh token");
+        }
+
+        // 2) Single use
+        Timestamp now = Timestamp.from(Instant.now());
+        if (refreshTokenRepo.markUsed(tokenHash, now) == 0) {
+            if (stored.getExpiresAt().after(now)) {
+                // Already exchanged once: treat as stolen and end the whole sign-in
+                revokeFamily(stored.getFamilyId());
+                log.warn("Refresh token reuse for user {}; revoked its token family", stored.getUserId());
+            }
+            throw new InvalidRefreshTokenException("Invalid refresh token");
+        }
+
+        // 3) Successor in the same family, committed together with the used flag
+        return issuePair(stored.getUserId(), stored.getFamilyId(), "Token refreshed");
+    }
+
+    // Revokes the presented access token and, if given, every token of the refresh token's sign-in
+    @Transactional
+    public void logout(VerifiedToken accessToken, String rawRefreshToken) {
+        if (accessToken != null) {
+            revokedTokens.revoke(accessToken.tokenId(), accessToken.expiresAt());
+        }
+        if (rawRefreshToken != null && !rawRefreshToken.isBlank()) {
+            refreshTokenRepo.findById(sha256Hex(rawRefreshToken))
+                    .ifPresent(stored -> revokeFamily(stored.getFamilyId()));
+        }
+    }
+
+    // Refresh tokens in the database, access tokens until the newest one issued so far expires
+    private void revokeFamily(String familyId) {
+        refreshTokenRepo.revokeFamily(familyId);
+        revokedTokens.revoke(familyId, Instant.now().plus(accessTtl));
+    }
+
+    private AuthResponse issuePair(String userId, String familyId, String message) {
+        byte[] random = new byte[32];
+        RANDOM.nextBytes(random);
+        String rawRefreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+
+        refreshTokenRepo.save(RefreshToken.builder()
+                .tokenHash(sha256Hex(rawRefreshToken))
+                .userId(userId)
+                .familyId(familyId)
+                .expiresAt(Timestamp.from(Instant.now().plus(refreshTtl)))
+                .build());
+
+        return AuthResponse.builder()
+                .message(message)
+                .token(jwtUtils.generateToken(userId, familyId))
+                .refreshToken(rawRefreshToken)
+                .build();
+    }
+
+    private static String sha256Hex(String value) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.communityappbackend.Service;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Storage for uploaded image bytes, addressed by an opaque key.
+ *
+ * Keys are what gets persisted in image_path columns. Implementations are content-addressed:
+ * storing the same bytes twice yields the same key and a single stored copy, so a key may be
+ * shared by several rows and must only be deleted once nothing references it any more.
+ *
+ * Because an upload of bytes that are already stored returns early, a concurrent cleanup could
+ * remove the file between that upload's put and its row insert. To prevent this every key
+ * returned by put is pinned until the caller releases it, and pinned keys are never deleted.
+ */
+public interface BlobStore {
+
+    /**
+     * Stores the stream and returns its key. The original file name only contributes the
+     * extension, so content types can still be derived from the key.
+     *
+     * The key stays pinned until {@link #release} is called for it, which callers do once the
+     * row referencing it is committed or abandoned.
+     */
+    String put(InputStream content, String originalFilename) throws IOException;
+
+    // Drops one pin taken by put.
+    void release(String key);
+
+    /**
+     * Stores a file derived from another blob (a resized copy, for example) under a key the
+     * caller builds from the source key, replacing any previous version.
+     */
+    void putDerived(String key, InputStream content) throws IOException;
+
+    /**
+     * Returns the stored blob, or null when nothing is stored under the key
+     * (including keys that are malformed for this store).
+     */
+    Resource get(String key);
+
+    boolean exists(String key);
+
+    /**
+     * Deletes the blob unless an upload still holds a pin on it or isReferenced reports a row
+     * pointing at it. The check and the delete are atomic with respect to put, so an upload of
+     * the same bytes either keeps the file or writes it again. Returns true if it was deleted.
+     */
+    boolean deleteIfUnreferenced(String key, BooleanSupplier isReferenced) throws IOException;
+}
@@ -13,9 +13,11 @@ import java.util.stream.Collectors;
 public class CategoryService {
 
     private final CategoryRepository categoryRepo;
+    private final ContentVersions contentVersions;
 
-    public CategoryService(CategoryRepository categoryRepo) {
+    public CategoryService(CategoryRepository categoryRepo, ContentVersions contentVersions) {
         this.categoryRepo = categoryRepo;
+        this.contentVersions = contentVersions;
     }
 
     public List<CategoryResponse> getAllCategories() {
@@ -34,6 +36,7 @@ public class CategoryService {
         Category saved = categoryRepo.save(Category.builder()
                 .categoryName(request.getCategoryName())
                 .build());
+        contentVersions.bumpCategories();
         return CategoryResponse.builder()
                 .categoryId(saved.getCategoryId())
                 .categoryName(saved.getCategoryName())
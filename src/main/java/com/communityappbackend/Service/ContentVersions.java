@@ -0,0 +1,62 @@
+package com.communityappbackend.Service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change counters for data that clients re-fetch on every screen refresh.
+ *
+ * Every write that can change what the feed, item details or the category list return bumps
+ * the matching version, and controllers turn the version into an ETag so an unchanged response
+ * is answered with 304 before any database work happens.
+ *
+ * The counters live in this process only. Each starts at a random per-boot value, so tags
+ * handed out before a restart or by another instance never match here. Writes that go through
+ * another instance do not bump them, though: behind a load balancer a client could keep getting
+ * 304 from this instance for data changed elsewhere. Running more than one instance needs a
+ * shared version source instead.
+ */
+@Service
+public class ContentVersions {
+
+    private final Version catalog = new Version();
+    private final Version categories = new Version();
+
+    // Items, their images or status, or any owner's profile/avatar changed
+    public void bumpCatalog() {
+        catalog.bump();
+    }
+
+    public void bumpCategories() {
+        categories.bump();
+    }
+
+    // The feed excludes the caller's own items, so its tag is scoped to the user as well.
+    public String feedETag(String userId) {
+        return "\"feed-" + catalog.value() + "-" + Integer.toHexString(userId.hashCode()) + "\"";
+    }
+
+    // ETags are per URL, so the item id does not need to be part of the tag
+    public String itemETag() {
+        return "\"item-" + catalog.value() + "\"";
+    }
+
+    public String categoriesETag() {
+        return "\"categories-" + categories.value() + "\"";
+    }
+
+    private static final class Version {
+        // Random start instead of 0 or the boot time, which two instances could share
+        private final AtomicLong value = new AtomicLong(ThreadLocalRandom.current().nextLong(1L << 62));
+
+        void bump() {
+            value.incrementAndGet();
+        }
+
+        long value() {
+            return value.get();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.communityappbackend.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * In-memory copies of small profile images, which are fetched next to every feed item.
+ *
+ * Bounded by total bytes rather than entry count. Caffeine's W-TinyLFU admission only lets a
+ * new entry in when it has been requested more often than the entry it would evict, so a burst
+ * of one-off fetches doesn't push popular avatars out. Files above the per-entry limit are
+ * always read from the store. Hit/miss counts are published as cache.* metrics with
+ * cache=hotImages, and the bytes held as image.hot.cache.bytes.
+ */
+@Service
+public class HotImageCache {
+
+    private final BlobStore profileImageStore;
+    private final long maxEntryBytes;
+    private final Cache<String, byte[]> cache;
+
+    public HotImageCache(@Qualifier("profileImageStore") BlobStore profileImageStore,
+                         MeterRegistry meterRegistry,
+                         @Value("${image.hot-cache.max-size:64MB}") DataSize maxSize,
+                         @Value("${image.hot-cache.max-entry-size:256KB}") DataSize maxEntrySize) {
+        this.profileImageStore = profileImageStore;
+        this.maxEntryBytes = maxEntrySize.toBytes();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, byte[] bytes) -> bytes.length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "hotImages");
+        Gauge.builder("image.hot.cache.bytes", cache,
+                        c -> c.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L))
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Same contract as {@link BlobStore#get}: the image under the key, or null. Small images
+     * come back as an in-memory resource whose file name is still the key.
+     */
+    public Resource get(String key) {
+        byte[] bytes = cache.get(key, this::loadSmall);
+        if (bytes != null) {
+            return new CachedImage(key, bytes);
+        }
+        return profileImageStore.get(key);
+    }
+
+    // Call when the stored file behind a key is removed.
+    public void invalidate(String key) {
+        cache.invalidate(key);
+    }
+
+    // Null (not cached) when missing or too large to keep in memory
+    private byte[] loadSmall(String key) {
+        Resource resource = profileImageStore.get(key);
+        if (resource == null) {
+            return null;
+        }
+        try {
+            if (resource.contentLength() > maxEntryBytes) {
+                return null;
+            }
+            return resource.getContentAsByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static final class CachedImage extends ByteArrayResource {
+
+        private final String key;
+
+        CachedImage(String key, byte[] bytes) {
+            super(bytes, "cached image " + key);
+            this.key = key;
+        }
+
+        @Override
+        public String getFilename() {
+            return key;
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.communityappbackend.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.w3c.dom.Node;
+
+import javax.imageio.*;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds fixed-size JPEG copies of item images (150/480/1080 px on the longest edge by default)
+ * in the background, so grids don't download multi-megabyte originals.
+ *
+ * Work runs on a small bounded pool. When the queue is full the request is dropped; the next
+ * request for a missing size schedules it again, which also covers images uploaded before
+ * this pipeline existed. Output is re-encoded from pixels only, so EXIF/GPS metadata is not
+ * carried over (the EXIF orientation is applied to the pixels first).
+ */
+@Service
+public class ImageDerivativeService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+    private static final String JPEG_METADATA_FORMAT = "javax_imageio_jpeg_image_1.0";
+    private static final long MAX_SOURCE_PIXELS = 100_000_000L;
+
+    private final BlobStore itemImageStore;
+    private final int[] sizes;          // ascending
+    private final float quality;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    // Sources that can't be decoded (WebP/HEIC with no ImageIO reader, corrupt or oversized
+    // files); requests for them just get the original instead of queueing another decode
+    private final Cache<String, Boolean> unreadable = Caffeine.newBuilder().maximumSize(10_000).build();
+
+    public ImageDerivativeService(@Qualifier("itemImageStore") BlobStore itemImageStore,
+                                  @Value("${image.thumbnail.sizes:150,480,1080}") int[] sizes,
+                                  @Value("${image.thumbnail.quality:0.8}") float quality,
+                                  @Value("${image.thumbnail.threads:2}") int threads,
+                                  @Value("${image.thumbnail.queue-capacity:500}") int queueCapacity) {
+        this.itemImageStore = itemImageStore;
+        this.sizes = Arrays.stream(sizes).sorted().distinct().toArray();
+        this.quality = quality;
+
+        AtomicInteger threadNo = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "image-derivatives-" + threadNo.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues generation of every size for the given image key. Returns immediately; repeated
+     * calls for a key already queued or running are ignored.
+     */
+    public void schedule(String key) {
+        if (!inFlight.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(key);
+                } catch (Exception e) {
+                    log.warn("Could not build derivatives for image {}: {}", key, e.getMessage());
+                } finally {
+                    inFlight.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key);
+            log.debug("Derivative queue full, skipped image {}", key);
+        }
+    }
+
+    /**
+     * Returns the stored derivative that best fits the requested size, or null when the
+     * original should be served instead: the request is larger than every derivative, or the
+     * derivative isn't built yet (in which case it is scheduled).
+     */
+    public Resource find(String key, int requestedSize) {
+        int size = sizeFor(requestedSize);
+        if (size < 0) {
+            return null;
+        }
+        Resource derivative = itemImageStore.get(derivativeKey(key, size));
+        if (derivative == null && unreadable.getIfPresent(key) == null) {
+            schedule(key);
+        }
+        return derivative;
+    }
+
+    // True when the requested size is larger than every derivative, so the original is the answer
+    public boolean servesOriginal(int requestedSize) {
+        return sizeFor(requestedSize) < 0;
+    }
+
+    // Smallest configured size that is at least the requested one, or -1 for "original"
+    private int sizeFor(int requestedSize) {
+        for (int size : sizes) {
+            if (size >= requestedSize) {
+                return size;
+            }
+        }
+        return -1;
+    }
+
+    static String derivativeKey(String key, int size) {
+        int dot = key.lastIndexOf('.');
+        String base = dot > 0 ? key.substring(0, dot) : key;
+        return base + "_" + size + ".jpg";
+    }
+
+    void generate(String key) throws IOException {
+        Resource source = itemImageStore.get(key);
+        if (source == null) {
+            return;
+        }
+
+        BufferedImage image;
+        try (InputStream in = source.getInputStream()) {
+            try {
+                image = decode(in, sizes[sizes.length - 1]);
+            } catch (IOException | RuntimeException e) {
+                // A file that fails to decode fails the same way every time
+                unreadable.put(key, Boolean.TRUE);
+                log.warn("Image {} could not be decoded: {}", key, e.getMessage());
+                return;
+            }
+        }
+        if (image == null) {
+            unreadable.put(key, Boolean.TRUE);
+            log.warn("Image {} is not in a readable format", key);
+            return;
+        }
+
+        // Largest first; each smaller size is scaled from the previous one
+        for (int i = sizes.length - 1; i >= 0; i--) {
+            image = scaleToFit(image, sizes[i]);
+            itemImageStore.putDerived(derivativeKey(key, sizes[i]), new ByteArrayInputStream(encodeJpeg(image)));
+        }
+    }
+
+    /**
+     * Decodes the image upright, as RGB on white, subsampling while reading so the decoded
+     * bitmap is at most about twice the largest target size.
+     */
+    private static BufferedImage decode(InputStream in, int largestSize) throws IOException {
+        try (ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+            if (iis == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, false);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    throw new IOException("Image too large: " + width + "x" + height);
+                }
+
+                int orientation = exifOrientation(reader.getImageMetadata(0));
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.max(width, height) / (2 * largestSize));
+                param.setSourceSubsampling(step, step, 0, 0);
+                BufferedImage decoded = reader.read(0, param);
+
+                return orient(decoded, orientation);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Redraws into an RGB canvas with the EXIF orientation applied (1 = already upright)
+    private static BufferedImage orient(BufferedImage src, int orientation) {
+        int w = src.getWidth();
+        int h = src.getHeight();
+        AffineTransform t = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);   // mirror horizontal
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);  // rotate 180
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);   // mirror vertical
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);    // transpose
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);   // rotate 90 clockwise
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w);  // transverse
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, w);   // rotate 90 counter-clockwise
+            default -> new AffineTransform();
+        };
+        boolean swap = orientation >= 5 && orientation <= 8;
+
+        BufferedImage out = new BufferedImage(swap ? h : w, swap ? w : h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        try {
+            g.setColor(Color.WHITE); // transparent PNG areas become white, not black
+            g.fillRect(0, 0, out.getWidth(), out.getHeight());
+            g.drawImage(src, t, null);
+        } finally {
+            g.dispose();
+        }
+        return out;
+    }
+
+    // Fits the longest edge into maxSize, halving step by step to avoid aliasing; never upscales
+    private static BufferedImage scaleToFit(BufferedImage src, int maxSize) {
+        BufferedImage current = src;
+        int longest = Math.max(current.getWidth(), current.getHeight());
+        while (longest > maxSize) {
+            double factor = Math.max(0.5, (double) maxSize / longest);
+            int w = Math.max(1, (int) Math.round(current.getWidth() * factor));
+            int h = Math.max(1, (int) Math.round(current.getHeight() * factor));
+
+            BufferedImage next = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, w, h, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+            longest = Math.max(w, h);
+        }
+        return current;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads the EXIF Orientation tag (0x0112) from a JPEG's APP1 segment. Returns 1 when
+     * there is none or it can't be parsed.
+     */
+    private static int exifOrientation(IIOMetadata metadata) {
+        if (metadata == null || !Arrays.asList(metadata.getMetadataFormatNames()).contains(JPEG_METADATA_FORMAT)) {
+            return 1;
+        }
+        Node root = metadata.getAsTree(JPEG_METADATA_FORMAT);
+        for (Node seq = root.getFirstChild(); seq != null; seq = seq.getNextSibling()) {
+            if (!"markerSequence".equals(seq.getNodeName())) {
+                continue;
+            }
+            for (Node marker = seq.getFirstChild(); marker != null; marker = marker.getNextSibling()) {
+                if ("unknown".equals(marker.getNodeName())
+                        && marker.getAttributes().getNamedItem("MarkerTag") != null
+                        && "225".equals(marker.getAttributes().getNamedItem("MarkerTag").getNodeValue())
+                        && ((IIOMetadataNode) marker).getUserObject() instanceof byte[] app1) {
+                    int orientation = parseOrientation(app1);
+                    if (orientation > 0) {
+                        return orientation;
+                    }
+                }
+            }
+        }
+        return 1;
+    }
+
+    // Offsets come from the file, so every one is bounds-checked before it is read
+    static int parseOrientation(byte[] app1) {
+        // "Exif\0\0" then a TIFF header: byte order, 42, offset of IFD0
+        if (app1.length < 14 || app1[0] != 'E' || app1[1] != 'x' || app1[2] != 'i' || app1[3] != 'f') {
+            return -1;
+        }
+        int tiff = 6;
+        boolean littleEndian;
+        if (app1[tiff] == 'I' && app1[tiff + 1] == 'I') {
+            littleEndian = true;
+        } else if (app1[tiff] == 'M' && app1[tiff + 1] == 'M') {
+            littleEndian = false;
+        } else {
+            return -1;
+        }
+        // Unsigned 32-bit offset; anything inside the TIFF header or past the segment is bogus
+        long ifdOffset = readInt(app1, tiff + 4, littleEndian) & 0xFFFFFFFFL;
+        if (ifdOffset < 8 || tiff + ifdOffset + 2 > app1.length) {
+            return -1;
+        }
+        int ifd = (int) (tiff + ifdOffset);
+        int entries = readShort(app1, ifd, littleEndian);
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > app1.length) {
+                return -1;
+            }
+            if (readShort(app1, entry, littleEndian) == 0x0112) {
+                int value = readShort(app1, entry + 8, littleEndian);
+                return value >= 1 && value <= 8 ? value : -1;
+            }
+        }
+        return -1;
+    }
+
+    private static int readShort(byte[] b, int offset, boolean littleEndian) {
+        int b0 = b[offset] & 0xFF;
+        int b1 = b[offset + 1] & 0xFF;
+        return littleEndian ? (b1 << 8) | b0 : (b0 << 8) | b1;
+    }
+
+    private static int readInt(byte[] b, int offset, boolean littleEndian) {
+        int hi = readShort(b, littleEndian ? offset + 2 : offset, littleEndian);
+        int lo = readShort(b, littleEndian ? offset : offset + 2, littleEndian);
+        return (hi << 16) | lo;
+    }
+}
@@ -0,0 +1,56 @@
+package com.communityappbackend.Service;
+
+import com.communityappbackend.DTO.ItemResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of fully assembled item details keyed by item id.
+ *
+ * Concurrent misses for the same item share a single load (Caffeine computes each key once
+ * and the other callers wait for it). Entries remember the owner so a profile or avatar change
+ * can drop every listing of that user. Hit ratio and load times are published as cache.*
+ * metrics with cache=itemDetails.
+ */
+@Service
+public class ItemDetailCache {
+
+    public record Entry(ItemResponse response, String ownerId) {
+    }
+
+    private final Cache<String, Entry> cache;
+
+    public ItemDetailCache(MeterRegistry meterRegistry,
+                           @Value("${item.detail.cache.max-size:10000}") long maxSize,
+                           @Value("${item.detail.cache.ttl:PT5M}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemDetails");
+    }
+
+    // The loader returns null for unknown items; nothing is cached in that case.
+    public ItemResponse get(String itemId, Function<String, Entry> loader) {
+        Entry entry = cache.get(itemId, loader);
+        return entry != null ? entry.response() : null;
+    }
+
+    // Call when the item, its status or its images change.
+    public void invalidate(String itemId) {
+        cache.invalidate(itemId);
+    }
+
+    // Call when an owner's name, contact fields or avatar change.
+    public void invalidateOwner(String ownerId) {
+        cache.asMap().values().removeIf(entry -> ownerId.equals(entry.ownerId()));
+    }
+}
@@ -0,0 +1,163 @@
+package com.communityappbackend.Service;
+
+import com.communityappbackend.Repository.ItemImageRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Validates and stores the images of a new listing.
+ *
+ * Uploads are written in parallel on a bounded pool (falling back to the request thread when
+ * it is saturated), so a 5-photo listing takes about as long as its largest photo. Each file
+ * is checked by its leading bytes before anything is stored; nothing is decoded.
+ */
+@Service
+public class ItemImageIngestor {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemImageIngestor.class);
+
+    public static final int MAX_IMAGES_PER_ITEM = 5;
+
+    private static final int HEADER_BYTES = 16;
+
+    private final BlobStore itemImageStore;
+    private final ItemImageRepository imageRepo;
+    private final ThreadPoolExecutor executor;
+
+    public ItemImageIngestor(@Qualifier("itemImageStore") BlobStore itemImageStore,
+                             ItemImageRepository imageRepo,
+                             @Value("${image.upload.threads:4}") int threads,
+                             @Value("${image.upload.queue-capacity:100}") int queueCapacity) {
+        this.itemImageStore = itemImageStore;
+        this.imageRepo = imageRepo;
+
+        AtomicInteger threadNo = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "image-upload-" + threadNo.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Stores up to {@link #MAX_IMAGES_PER_ITEM} uploads and returns their keys in upload order.
+     * The keys stay pinned until passed to {@link #release} or {@link #discard}.
+     * If any file is rejected or fails to write, the ones already stored are discarded and
+     * the first error is thrown.
+     */
+    public List<String> store(List<MultipartFile> files) {
+        if (files == null || files.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<CompletableFuture<String>> writes = files.stream()
+                .filter(Objects::nonNull)
+                .limit(MAX_IMAGES_PER_ITEM)
+                .map(file -> CompletableFuture.supplyAsync(() -> storeOne(file), executor))
+                .toList();
+
+        // Wait for every write, even after a failure, so all stored keys are known for cleanup
+        List<String> keys = new ArrayList<>(writes.size());
+        RuntimeException failure = null;
+        for (CompletableFuture<String> write : writes) {
+            try {
+                keys.add(write.join());
+            } catch (CompletionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException re ? re : new RuntimeException(e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            discard(keys);
+            throw failure;
+        }
+        return keys;
+    }
+
+    /**
+     * Releases the pins store() took, once the item_images rows for the keys are committed.
+     */
+    public void release(Collection<String> keys) {
+        keys.forEach(itemImageStore::release);
+    }
+
+    /**
+     * Releases the keys and deletes the stored images that no item_images row points at, after
+     * the listing that would have referenced them was not saved. Content is shared between
+     * listings, so a key still used elsewhere, or being uploaded by another listing, is kept.
+     */
+    public void discard(Collection<String> keys) {
+        release(keys);
+        for (String key : new LinkedHashSet<>(keys)) {
+            try {
+                itemImageStore.deleteIfUnreferenced(key, () -> imageRepo.existsByImagePath(key));
+            } catch (Exception e) {
+                log.warn("Could not remove unused image {}: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    private String storeOne(MultipartFile file) {
+        try (PushbackInputStream in = new PushbackInputStream(file.getInputStream(), HEADER_BYTES)) {
+            byte[] header = in.readNBytes(HEADER_BYTES);
+            String extension = detectExtension(header);
+            if (extension == null) {
+                throw new RuntimeException("Unsupported image file: " + file.getOriginalFilename());
+            }
+            in.unread(header);
+            // Name the blob after the detected type, not whatever the client called the file
+            return itemImageStore.put(in, "upload." + extension);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to save file: " + e.getMessage(), e);
+        }
+    }
+
+    // Recognises JPEG, PNG, GIF, WebP and HEIC by their signatures; null for anything else
+    static String detectExtension(byte[] h) {
+        if (h.length >= 3 && (h[0] & 0xFF) == 0xFF && (h[1] & 0xFF) == 0xD8 && (h[2] & 0xFF) == 0xFF) {
+            return "jpg";
+        }
+        if (h.length >= 8 && (h[0] & 0xFF) == 0x89 && ascii(h, 1, 3).equals("PNG")
+                && h[4] == 0x0D && h[5] == 0x0A && h[6] == 0x1A && h[7] == 0x0A) {
+            return "png";
+        }
+        if (h.length >= 6 && (ascii(h, 0, 6).equals("GIF87a") || ascii(h, 0, 6).equals("GIF89a"))) {
+            return "gif";
+        }
+        if (h.length >= 12 && ascii(h, 0, 4).equals("RIFF") && ascii(h, 8, 4).equals("WEBP")) {
+            return "webp";
+        }
+        if (h.length >= 12 && ascii(h, 4, 4).equals("ftyp")) {
+            String brand = ascii(h, 8, 4);
+            if (brand.equals("heic") || brand.equals("heix") || brand.equals("mif1") || brand.equals("msf1")) {
+                return "heic";
+            }
+        }
+        return null;
+    }
+
+    private static String ascii(byte[] bytes, int offset, int length) {
+        return new String(bytes, offset, length, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,28 @@
+package com.communityappbackend.Service;
+
+/**
+ * Public URLs for item images. image_path holds a blob key; rows written before the
+ * blob store carry an "Assets/" prefix that is not part of the key.
+ */
+public final class ItemImageUrls {
+
+    private static final String BASE_URL = "http://10.0.2.2:8080/api/items/image/";
+
+    // Size requested by grid/list thumbnails; served from the nearest derivative at or above it
+    public static final int THUMBNAIL_SIZE = 480;
+
+    private ItemImageUrls() {
+    }
+
+    public static String key(String imagePath) {
+        return imagePath.replace("Assets/", "");
+    }
+
+    public static String original(String imagePath) {
+        return BASE_URL + key(imagePath);
+    }
+
+    public static String thumbnail(String imagePath) {
+        return original(imagePath) + "?size=" + THUMBNAIL_SIZE;
+    }
+}
@@ -0,0 +1,283 @@
+package com.communityappbackend.Service;
+
+import com.communityappbackend.DTO.PageCursor;
+import com.communityappbackend.Model.Item;
+import com.communityappbackend.Repository.ItemLocationView;
+import com.communityappbackend.Repository.ItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory index from region (owner's city or province) to ACTIVE item ids, each region kept
+ * newest first so "near me" pages are a seek into a sorted set rather than a users join.
+ *
+ * Built once the application is ready, then kept current by ItemService (new items) and
+ * UserService (owner changes city/province). Reads are lock-free; writes are serialized.
+ * A rebuild loads into separate maps and swaps them in, so it never blocks reads or writes.
+ */
+@Service
+public class ItemLocationIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemLocationIndex.class);
+    private static final int REBUILD_BATCH = 5000;
+
+    public enum Scope { CITY, PROVINCE }
+
+    public record Entry(String itemId, String ownerId, Long categoryId, Double price, long createdAt) {
+        public PageCursor cursor() {
+            return PageCursor.of(new Timestamp(createdAt), itemId);
+        }
+    }
+
+    // Newest first, item id as tie-breaker; same order as the database feed
+    private static final Comparator<Entry> NEWEST_FIRST = Comparator
+            .comparingLong(Entry::createdAt).reversed()
+            .thenComparing(Entry::itemId, Comparator.reverseOrder());
+
+    private final ItemRepository itemRepo;
+    private final Object rebuildLock = new Object();
+
+    // Replaced as a whole by rebuild(); mutated in place by the synchronized writers below
+    private volatile State state = new State();
+
+    // Items and owners changed through the writers while a rebuild scans the database; their
+    // batch rows may be stale. Null when no rebuild is running. Guarded by this.
+    private Set<String> touchedItems;
+    private Set<String> touchedOwners;
+
+    public ItemLocationIndex(ItemRepository itemRepo) {
+        this.itemRepo = itemRepo;
+    }
+
+    /**
+     * Loads the index into fresh maps and swaps them in. Pages keep being served from the old
+     * maps, and index()/ownerMoved() keep running, while the database is scanned.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                touchedItems = new HashSet<>();
+                touchedOwners = new HashSet<>();
+            }
+            try {
+                State fresh = new State();
+                String afterId = "";
+                List<ItemLocationView> batch;
+                do {
+                    batch = itemRepo.findLocationBatch("ACTIVE", afterId, PageRequest.of(0, REBUILD_BATCH));
+                    for (ItemLocationView row : batch) {
+                        fresh.regionsByOwner.putIfAbsent(row.getOwnerId(), regionKeys(row.getCity(), row.getProvince()));
+                        fresh.add(new Entry(row.getItemId(), row.getOwnerId(), row.getCategoryId(), row.getPrice(),
+                                millis(row.getCreatedAt())));
+                    }
+                    if (!batch.isEmpty()) {
+                        afterId = batch.get(batch.size() - 1).getItemId();
+                    }
+                } while (batch.size() == REBUILD_BATCH);
+
+                synchronized (this) {
+                    // Changes made during the scan win over the rows it read
+                    State live = state;
+                    for (String ownerId : touchedOwners) {
+                        String[] regions = live.regionsByOwner.get(ownerId);
+                        if (regions != null) {
+                            fresh.move(ownerId, regions);
+                        }
+                    }
+                    for (String itemId : touchedItems) {
+                        fresh.remove(itemId);
+                        Entry entry = live.byItemId.get(itemId);
+                        if (entry != null) {
+                            fresh.regionsByOwner.putIfAbsent(entry.ownerId(),
+                                    live.regionsByOwner.getOrDefault(entry.ownerId(), new String[0]));
+                            fresh.add(entry);
+                        }
+                    }
+                    state = fresh;
+                }
+                log.info("Item location index built with {} items in {} regions",
+                        fresh.byItemId.size(), fresh.byRegion.size());
+            } finally {
+                synchronized (this) {
+                    touchedItems = null;
+                    touchedOwners = null;
+                }
+            }
+        }
+    }
+
+    // Adds, re-indexes or drops the item depending on its status. city/province are the owner's.
+    public synchronized void index(Item item, String city, String province) {
+        touch(item.getItemId(), item.getOwnerId());
+        State current = state;
+        current.remove(item.getItemId());
+        if (!"ACTIVE".equals(item.getStatus())) {
+            return;
+        }
+        current.regionsByOwner.put(item.getOwnerId(), regionKeys(city, province));
+        current.add(new Entry(item.getItemId(), item.getOwnerId(), item.getCategoryId(), item.getPrice(),
+                millis(item.getCreatedAt())));
+    }
+
+    public synchronized void remove(String itemId) {
+        touch(itemId, null);
+        state.remove(itemId);
+    }
+
+    // Moves all of a user's items to their new region after a profile update.
+    public synchronized void ownerMoved(String ownerId, String city, String province) {
+        touch(null, ownerId);
+        state.move(ownerId, regionKeys(city, province));
+    }
+
+    // Caller must hold the monitor.
+    private void touch(String itemId, String ownerId) {
+        if (touchedItems == null) {
+            return;
+        }
+        if (itemId != null) {
+            touchedItems.add(itemId);
+        }
+        if (ownerId != null) {
+            touchedOwners.add(ownerId);
+        }
+    }
+
+    /**
+     * One newest-first page of items in the given user's city or province, after the cursor.
+     * Returns up to limit entries; an empty list if the user has no region for that scope.
+     */
+    public List<Entry> page(Scope scope, String city, String province, String excludeOwnerId,
+                            Long categoryId, Double minPrice, Double maxPrice, PageCursor after, int limit) {
+        String region = scope == Scope.CITY ? cityKey(city, province) : provinceKey(province);
+        NavigableSet<Entry> set = region != null ? state.byRegion.get(region) : null;
+        if (set == null) {
+            return Collections.emptyList();
+        }
+        Iterable<Entry> candidates = after == null
+                ? set
+                : set.tailSet(new Entry(after.getId(), null, null, null, after.timestamp().getTime()), false);
+
+        List<Entry> page = new ArrayList<>(limit);
+        for (Entry entry : candidates) {
+            if (entry.ownerId().equals(excludeOwnerId)) {
+                continue;
+            }
+            if (categoryId != null && !categoryId.equals(entry.categoryId())) {
+                continue;
+            }
+            if ((minPrice != null || maxPrice != null) && !inRange(entry.price(), minPrice, maxPrice)) {
+                continue;
+            }
+            page.add(entry);
+            if (page.size() >= limit) {
+                break;
+            }
+        }
+        return page;
+    }
+
+    private static boolean inRange(Double price, Double min, Double max) {
+        return price != null && (min == null || price >= min) && (max == null || price <= max);
+    }
+
+    // The index maps. Read without locking; written only under the outer monitor (or, before it is
+    // published, by the rebuild that owns it).
+    private static final class State {
+        final Map<String, NavigableSet<Entry>> byRegion = new ConcurrentHashMap<>();
+        final Map<String, Entry> byItemId = new ConcurrentHashMap<>();
+        final Map<String, Set<String>> itemIdsByOwner = new ConcurrentHashMap<>();
+        final Map<String, String[]> regionsByOwner = new ConcurrentHashMap<>();
+
+        void add(Entry entry) {
+            byItemId.put(entry.itemId(), entry);
+            itemIdsByOwner.computeIfAbsent(entry.ownerId(), o -> ConcurrentHashMap.newKeySet()).add(entry.itemId());
+            for (String region : regionsByOwner.getOrDefault(entry.ownerId(), new String[0])) {
+                byRegion.computeIfAbsent(region, r -> new ConcurrentSkipListSet<>(NEWEST_FIRST)).add(entry);
+            }
+        }
+
+        void remove(String itemId) {
+            Entry entry = byItemId.remove(itemId);
+            if (entry == null) {
+                return;
+            }
+            for (String region : regionsByOwner.getOrDefault(entry.ownerId(), new String[0])) {
+                NavigableSet<Entry> set = byRegion.get(region);
+                if (set != null) {
+                    set.remove(entry);
+                }
+            }
+            Set<String> owned = itemIdsByOwner.get(entry.ownerId());
+            if (owned != null) {
+                owned.remove(itemId);
+            }
+        }
+
+        void move(String ownerId, String[] newRegions) {
+            String[] oldRegions = regionsByOwner.put(ownerId, newRegions);
+            if (oldRegions != null && Arrays.equals(oldRegions, newRegions)) {
+                return;
+            }
+            for (String itemId : itemIdsByOwner.getOrDefault(ownerId, Collections.emptySet())) {
+                Entry entry = byItemId.get(itemId);
+                if (entry == null) {
+                    continue;
+                }
+                if (oldRegions != null) {
+                    for (String region : oldRegions) {
+                        NavigableSet<Entry> set = byRegion.get(region);
+                        if (set != null) {
+                            set.remove(entry);
+                        }
+                    }
+                }
+                for (String region : newRegions) {
+                    byRegion.computeIfAbsent(region, r -> new ConcurrentSkipListSet<>(NEWEST_FIRST)).add(entry);
+                }
+            }
+        }
+    }
+
+    // New rows get created_at from the database default, so fall back to "now" until it is read back.
+    private static long millis(Timestamp ts) {
+        return ts != null ? ts.getTime() : System.currentTimeMillis();
+    }
+
+    private static String[] regionKeys(String city, String province) {
+        List<String> keys = new ArrayList<>(2);
+        String cityKey = cityKey(city, province);
+        String provinceKey = provinceKey(province);
+        if (cityKey != null) keys.add(cityKey);
+        if (provinceKey != null) keys.add(provinceKey);
+        return keys.toArray(new String[0]);
+    }
+
+    // Cities are qualified by province so same-named towns in different provinces don't mix.
+    private static String cityKey(String city, String province) {
+        String c = normalize(city);
+        return c != null ? "city:" + Objects.toString(normalize(province), "") + "/" + c : null;
+    }
+
+    private static String provinceKey(String province) {
+        String p = normalize(province);
+        return p != null ? "province:" + p : null;
+    }
+
+    private static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
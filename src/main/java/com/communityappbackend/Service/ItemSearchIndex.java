@@ -0,0 +1,276 @@
+package com.communityappbackend.Service;
+
+import com.communityappbackend.Model.Item;
+import com.communityappbackend.Repository.ItemRepository;
+import com.communityappbackend.Repository.ItemTextView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over the title and description of ACTIVE items.
+ *
+ * Query terms match index terms exactly or by prefix ("bic" finds "bicycle") and results are
+ * ranked with BM25, title occurrences counting double. The index is rebuilt from the database
+ * once the application is ready and kept current by ItemService as items are added or change
+ * status. It only yields item ids; callers re-check status when they load the rows.
+ */
+@Service
+public class ItemSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemSearchIndex.class);
+
+    private static final Pattern SPLIT = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final int MIN_TOKEN_LENGTH = 2;
+    private static final int TITLE_WEIGHT = 2;
+    private static final int MAX_PREFIX_EXPANSION = 64;
+    private static final double PREFIX_MATCH_WEIGHT = 0.7;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int REBUILD_BATCH = 5000;
+
+    private final ItemRepository itemRepo;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term -> (docId -> weighted term frequency); sorted so prefixes are a sub-map range
+    private final NavigableMap<String, Map<Integer, Integer>> postings = new TreeMap<>();
+    private final Map<String, Integer> docIdByItemId = new HashMap<>();
+    private final List<Doc> docs = new ArrayList<>();
+    private final Deque<Integer> freeDocIds = new ArrayDeque<>();
+    private long totalLength;
+    private int liveDocs;
+    // Items changed through index()/remove() while a rebuild runs; their batch rows may be stale.
+    // Null when no rebuild is running. Guarded by the write lock.
+    private Set<String> touchedDuringRebuild;
+
+    private record Doc(String itemId, String ownerId, Map<String, Integer> terms, int length) {
+    }
+
+    public ItemSearchIndex(ItemRepository itemRepo) {
+        this.itemRepo = itemRepo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docIdByItemId.clear();
+            docs.clear();
+            freeDocIds.clear();
+            totalLength = 0;
+            liveDocs = 0;
+            touchedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // Requests are served before ApplicationReadyEvent, so index()/remove() can run between
+        // batches. Their state wins over a batch row read earlier, and re-adding goes through
+        // removeInternal so an item is never indexed twice.
+        try {
+            String afterId = "";
+            List<ItemTextView> batch;
+            do {
+                batch = itemRepo.findTextBatch("ACTIVE", afterId, PageRequest.of(0, REBUILD_BATCH));
+                lock.writeLock().lock();
+                try {
+                    for (ItemTextView row : batch) {
+                        if (touchedDuringRebuild.contains(row.getItemId())) {
+                            continue;
+                        }
+                        removeInternal(row.getItemId());
+                        add(row.getItemId(), row.getOwnerId(), row.getTitle(), row.getDescription());
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                if (!batch.isEmpty()) {
+                    afterId = batch.get(batch.size() - 1).getItemId();
+                }
+            } while (batch.size() == REBUILD_BATCH);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                touchedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        log.info("Item search index built with {} items in {} ms", liveDocs, System.currentTimeMillis() - start);
+    }
+
+    // Adds, re-indexes or drops the item depending on its current status.
+    public void index(Item item) {
+        lock.writeLock().lock();
+        try {
+            markTouched(item.getItemId());
+            removeInternal(item.getItemId());
+            if ("ACTIVE".equals(item.getStatus())) {
+                add(item.getItemId(), item.getOwnerId(), item.getTitle(), item.getDescription());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String itemId) {
+        lock.writeLock().lock();
+        try {
+            markTouched(itemId);
+            removeInternal(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranked item ids for the query, skipping items owned by excludeOwnerId.
+     * Returns at most limit ids starting at offset in rank order.
+     */
+    public List<String> search(String query, String excludeOwnerId, int offset, int limit) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (liveDocs == 0) {
+                return Collections.emptyList();
+            }
+            double avgLength = (double) totalLength / liveDocs;
+            Map<Integer, Double> scores = new HashMap<>();
+
+            for (String queryTerm : new LinkedHashSet<>(queryTerms)) {
+                int expanded = 0;
+                for (Map.Entry<String, Map<Integer, Integer>> entry
+                        : postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).entrySet()) {
+                    if (expanded++ >= MAX_PREFIX_EXPANSION) {
+                        break;
+                    }
+                    double weight = entry.getKey().equals(queryTerm) ? 1.0 : PREFIX_MATCH_WEIGHT;
+                    Map<Integer, Integer> postingList = entry.getValue();
+                    double idf = Math.log(1 + (liveDocs - postingList.size() + 0.5) / (postingList.size() + 0.5));
+                    for (Map.Entry<Integer, Integer> posting : postingList.entrySet()) {
+                        Doc doc = docs.get(posting.getKey());
+                        if (excludeOwnerId != null && excludeOwnerId.equals(doc.ownerId())) {
+                            continue;
+                        }
+                        double tf = posting.getValue();
+                        double norm = tf * (K1 + 1) / (tf + K1 * (1 - B + B * doc.length() / avgLength));
+                        scores.merge(posting.getKey(), weight * idf * norm, Double::sum);
+                    }
+                }
+            }
+
+            // Keep only the top offset + limit hits
+            int wanted = offset + limit;
+            PriorityQueue<Map.Entry<Integer, Double>> top = new PriorityQueue<>(
+                    Map.Entry.<Integer, Double>comparingByValue()
+                            .thenComparing(e -> docs.get(e.getKey()).itemId(), Comparator.reverseOrder()));
+            for (Map.Entry<Integer, Double> score : scores.entrySet()) {
+                top.offer(score);
+                if (top.size() > wanted) {
+                    top.poll();
+                }
+            }
+            List<String> ranked = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                ranked.add(docs.get(top.poll().getKey()).itemId());
+            }
+            Collections.reverse(ranked);
+            return offset >= ranked.size() ? Collections.emptyList() : ranked.subList(offset, ranked.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller must hold the write lock.
+    private void markTouched(String itemId) {
+        if (touchedDuringRebuild != null) {
+            touchedDuringRebuild.add(itemId);
+        }
+    }
+
+    // Caller must hold the write lock.
+    private void add(String itemId, String ownerId, String title, String description) {
+        Map<String, Integer> terms = new HashMap<>();
+        for (String token : tokenize(title)) {
+            terms.merge(token, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String token : tokenize(description)) {
+            terms.merge(token, 1, Integer::sum);
+        }
+        int length = terms.values().stream().mapToInt(Integer::intValue).sum();
+
+        Integer docId = freeDocIds.poll();
+        Doc doc = new Doc(itemId, ownerId, terms, length);
+        if (docId == null) {
+            docId = docs.size();
+            docs.add(doc);
+        } else {
+            docs.set(docId, doc);
+        }
+        docIdByItemId.put(itemId, docId);
+        for (Map.Entry<String, Integer> term : terms.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), k -> new HashMap<>()).put(docId, term.getValue());
+        }
+        totalLength += length;
+        liveDocs++;
+    }
+
+    // Caller must hold the write lock.
+    private void removeInternal(String itemId) {
+        Integer docId = docIdByItemId.remove(itemId);
+        if (docId == null) {
+            return;
+        }
+        Doc doc = docs.get(docId);
+        for (String term : doc.terms().keySet()) {
+            Map<Integer, Integer> postingList = postings.get(term);
+            if (postingList != null) {
+                postingList.remove(docId);
+                if (postingList.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        docs.set(docId, null);
+        freeDocIds.push(docId);
+        totalLength -= doc.length();
+        liveDocs--;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : SPLIT.split(text.toLowerCase(Locale.ROOT))) {
+            if (token.length() >= MIN_TOKEN_LENGTH) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
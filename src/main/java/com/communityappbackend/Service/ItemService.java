@@ -3,36 +3,60 @@ package com.communityappbackend.Service;
 import com.communityappbackend.DTO.*;
 import com.communityappbackend.Model.*;
 import com.communityappbackend.Repository.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.*;
 import java.sql.Timestamp;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 public class ItemService {
 
-    private final ItemRepository itemRepo;
-    private final ItemImageRepository imageRepo;
-
-    private static final String ASSETS_DIR = "C:\\Projects\\Community App\\community-app-backend\\src\\main\\java\\com\\communityappbackend\\Assets";
+    private static final int STREAM_CHUNK = 200;
 
-    public ItemService(ItemRepository itemRepo, ItemImageRepository imageRepo) {
+    private final ItemRepository itemRepo;
+    private final ItemSearchIndex searchIndex;
+    private final ItemLocationIndex locationIndex;
+    private final ItemDetailCache itemDetailCache;
+    private final TradeItemService tradeItemService;
+    private final ItemSummaryAssembler summaryAssembler;
+    private final ContentVersions contentVersions;
+    private final ItemImageIngestor imageIngestor;
+    private final ImageDerivativeService derivativeService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ItemService(ItemRepository itemRepo,
+                       ItemSearchIndex searchIndex, ItemLocationIndex locationIndex,
+                       ItemDetailCache itemDetailCache, TradeItemService tradeItemService,
+                       ItemSummaryAssembler summaryAssembler, ContentVersions contentVersions,
+                       ItemImageIngestor imageIngestor, ImageDerivativeService derivativeService,
+                       JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
         this.itemRepo = itemRepo;
-        this.imageRepo = imageRepo;
+        this.searchIndex = searchIndex;
+        this.locationIndex = locationIndex;
+        this.itemDetailCache = itemDetailCache;
+        this.tradeItemService = tradeItemService;
+        this.summaryAssembler = summaryAssembler;
+        this.contentVersions = contentVersions;
+        this.imageIngestor = imageIngestor;
+        this.derivativeService = derivativeService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
     }
 
     // Existing: addItem
     public ItemResponse addItem(ItemRequest request, List<MultipartFile> files, Authentication auth) {
         User user = (User) auth.getPrincipal();
 
-        Item newItem = Item.builder()
+        Item draft = Item.builder()
                 .title(request.getTitle())
                 .description(request.getDescription())
                 .price(request.getPrice())
@@ -41,41 +65,49 @@ public class ItemService {
                 .status("ACTIVE") // default
                 .build();
 
-        newItem = itemRepo.save(newItem);
-
-        if (files != null && !files.isEmpty()) {
-            int count = 0;
-            for (MultipartFile file : files) {
-                if (count >= 5) break;
-                String filePath = saveFileToAssets(file);
-                ItemImage img = ItemImage.builder()
-                        .imagePath(filePath)
-                        .item(newItem)
-                        .build();
-                imageRepo.save(img);
-                count++;
-            }
+        // 1) Validate and write the files in parallel (up to 5), before touching the DB
+        List<String> imageKeys = imageIngestor.store(files);
+
+        // 2) Item row and all image rows in one transaction; drop the files if it fails
+        Item newItem;
+        try {
+            newItem = transactionTemplate.execute(status -> {
+                Item saved = itemRepo.saveAndFlush(draft);
+                insertImages(saved.getItemId(), imageKeys);
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            imageIngestor.discard(imageKeys);
+            throw e;
+        }
+        imageIngestor.release(imageKeys);
+
+        // 3) After commit: thumbnails in the background, response built from the keys we wrote
+        for (String key : imageKeys) {
+            derivativeService.schedule(key);
+            newItem.getImages().add(ItemImage.builder().imagePath(key).item(newItem).build());
         }
 
+        searchIndex.index(newItem);
+        locationIndex.index(newItem, user.getCity(), user.getProvince());
+        itemDetailCache.invalidate(newItem.getItemId());
+        contentVersions.bumpCatalog();
         return toItemResponse(newItem);
     }
 
     // Existing: get user items
-    public List<ItemResponse> getMyItems(Authentication auth) {
+    public List<ItemSummaryResponse> getMyItems(Authentication auth) {
         User user = (User) auth.getPrincipal();
-        List<Item> items = itemRepo.findByOwnerId(user.getUserId());
-        return items.stream()
-                .map(this::toItemResponse)
-                .collect(Collectors.toList());
+        return getItemsByOwner(user.getUserId());
     }
 
 
     private ItemResponse toItemResponse(Item item) {
         List<String> imageUrls = item.getImages().stream()
-                .map(img -> {
-                    String fileName = img.getImagePath().replace("Assets/", "");
-                    return "http://10.0.2.2:8080/api/items/image/" + fileName;
-                })
+                .map(img -> ItemImageUrls.original(img.getImagePath()))
+                .collect(Collectors.toList());
+        List<String> thumbnailUrls = item.getImages().stream()
+                .map(img -> ItemImageUrls.thumbnail(img.getImagePath()))
                 .collect(Collectors.toList());
 
         // Format created_at as string if not null
@@ -90,48 +122,54 @@ public class ItemService {
                 .price(item.getPrice())
                 .categoryId(item.getCategoryId())
                 .images(imageUrls)
+                .thumbnails(thumbnailUrls)
                 .status(item.getStatus())
                 .createdAt(createdAtStr)
                 .build();
     }
 
-    private String saveFileToAssets(MultipartFile file) {
-        try {
-            File dir = new File(ASSETS_DIR);
-            if (!dir.exists()) {
-                boolean created = dir.mkdirs();
-                if (!created) {
-                    throw new IOException("Failed to create directory: " + ASSETS_DIR);
-                }
-            }
-
-            String uniqueName = UUID.randomUUID() + "_" + file.getOriginalFilename();
-            File dest = new File(dir, uniqueName);
-            file.transferTo(dest);
-            System.out.println("File saved to: " + dest.getAbsolutePath());
-
-            return "Assets/" + uniqueName;
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to save file: " + e.getMessage(), e);
+    // One JDBC batch: item_images ids are IDENTITY, which stops Hibernate from batching inserts.
+    // Rows go in upload order, so the first photo keeps the lowest id (the list thumbnail).
+    private void insertImages(String itemId, List<String> keys) {
+        if (keys.isEmpty()) {
+            return;
         }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO item_images (image_path, item_id) VALUES (?, ?)",
+                keys,
+                keys.size(),
+                (ps, key) -> {
+                    ps.setString(1, key);
+                    ps.setString(2, itemId);
+                });
     }
 
     public ItemResponse getItemDetails(String itemId) {
-        // Attempt to find item by ID
-        Optional<Item> itemOpt = itemRepo.findById(itemId);
-        if (itemOpt.isEmpty()) {
-            return null; // or throw a custom NotFoundException
-        }
-        // Convert to ItemResponse
-        return toItemResponse(itemOpt.get());
+        // Same cached, fully assembled response the marketplace details endpoint serves
+        return tradeItemService.getItemDetails(itemId);
     }
 
-    // NEW: Return items by owner
-    public List<ItemResponse> getItemsByOwner(String userId) {
-        List<Item> items = itemRepo.findByOwnerId(userId);
-        return items.stream()
-                .map(this::toItemResponse) // convert each to a response
-                .collect(Collectors.toList());
+    // Streams all of an owner's items, newest first, handing them to the sink one chunk at a time.
+    // Rows are scrolled by keyset, so memory stays bounded by STREAM_CHUNK whatever the account size.
+    public void streamItemsByOwner(String userId, Consumer<List<ItemSummaryResponse>> sink) {
+        PageCursor after = null;
+        List<ItemListRow> rows;
+        do {
+            rows = itemRepo.findListRowsByOwnerIdPage(userId,
+                    after != null ? after.timestamp() : null,
+                    after != null ? after.getId() : null,
+                    PageRequest.of(0, STREAM_CHUNK));
+            if (!rows.isEmpty()) {
+                sink.accept(summaryAssembler.toSummaries(rows, false));
+                ItemListRow last = rows.get(rows.size() - 1);
+                after = PageCursor.of(last.getCreatedAt(), last.getItemId());
+            }
+        } while (rows.size() == STREAM_CHUNK);
+    }
+
+    // NEW: Return items by owner (grid rows: lean projection + first image)
+    public List<ItemSummaryResponse> getItemsByOwner(String userId) {
+        return summaryAssembler.toSummaries(itemRepo.findListRowsByOwnerId(userId), false);
     }
 
 
@@ -0,0 +1,75 @@
+package com.communityappbackend.Service;
+
+import com.communityappbackend.DTO.ItemSummaryResponse;
+import com.communityappbackend.DTO.OwnerSummary;
+import com.communityappbackend.Repository.ItemImageRepository;
+import com.communityappbackend.Repository.ItemImageView;
+import com.communityappbackend.Repository.ItemListRow;
+import org.springframework.stereotype.Service;
+
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Turns ItemListRow projections into ItemSummaryResponses: one aggregated query for the first
+ * image of every row, plus owner summaries from OwnerSummaryCache when the list shows owners.
+ */
+@Service
+public class ItemSummaryAssembler {
+
+    private static final DateTimeFormatter CREATED_AT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final ItemImageRepository imageRepo;
+    private final OwnerSummaryCache ownerSummaryCache;
+
+    public ItemSummaryAssembler(ItemImageRepository imageRepo, OwnerSummaryCache ownerSummaryCache) {
+        this.imageRepo = imageRepo;
+        this.ownerSummaryCache = ownerSummaryCache;
+    }
+
+    public List<ItemSummaryResponse> toSummaries(List<ItemListRow> rows, boolean withOwner) {
+        if (rows.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<String, String> firstImages = imageRepo.findFirstImages(rows.stream()
+                        .map(ItemListRow::getItemId)
+                        .collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(ItemImageView::getItemId, ItemImageView::getImagePath, (a, b) -> a));
+        Map<String, OwnerSummary> owners = withOwner
+                ? ownerSummaryCache.getAll(rows.stream().map(ItemListRow::getOwnerId).collect(Collectors.toSet()))
+                : Collections.emptyMap();
+
+        return rows.stream()
+                .map(row -> toSummary(row, firstImages.get(row.getItemId()),
+                        withOwner ? owners.get(row.getOwnerId()) : null, withOwner))
+                .collect(Collectors.toList());
+    }
+
+    private ItemSummaryResponse toSummary(ItemListRow row, String imagePath, OwnerSummary owner, boolean withOwner) {
+        List<String> images = imagePath != null
+                ? List.of(ItemImageUrls.original(imagePath))
+                : Collections.emptyList();
+        List<String> thumbnails = imagePath != null
+                ? List.of(ItemImageUrls.thumbnail(imagePath))
+                : Collections.emptyList();
+
+        ItemSummaryResponse.ItemSummaryResponseBuilder builder = ItemSummaryResponse.builder()
+                .itemId(row.getItemId())
+                .title(row.getTitle())
+                .price(row.getPrice())
+                .categoryId(row.getCategoryId())
+                .images(images)
+                .thumbnails(thumbnails)
+                .status(row.getStatus())
+                .createdAt(row.getCreatedAt() != null
+                        ? row.getCreatedAt().toLocalDateTime().format(CREATED_AT_FORMAT)
+                        : null);
+        if (withOwner) {
+            builder.ownerFullName(owner != null ? owner.getFullName() : "")
+                    .ownerProfileImage(owner != null ? owner.getProfileImageUrl() : "");
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,202 @@
+package com.communityappbackend.Service;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * {@link BlobStore} on the local filesystem.
+ *
+ * Keys are the SHA-256 of the content plus the upload's extension, e.g. "9f86d0...0a08.jpg",
+ * and files are sharded by the first two hash bytes ("9f/86/9f86d0...0a08.jpg") so no single
+ * directory grows past a few thousand entries. Uploads are written to a temp file while being
+ * hashed and then moved into place, so a key never points at a partially written file.
+ *
+ * Derived files (see {@link #putDerived}) live next to their source, e.g. "9f86d0...0a08_480.jpg".
+ *
+ * Pins (see {@link BlobStore}) are per-key counters; deleteIfUnreferenced runs its check inside
+ * the same map operation that put uses to pin, so the two cannot interleave.
+ *
+ * Keys written before content addressing ("uuid_name.jpg") are still served from the flat
+ * root directory.
+ */
+public class LocalBlobStore implements BlobStore {
+
+    // Content hash, optional derivative suffix ("_480"), optional extension
+    private static final Pattern HASHED_KEY = Pattern.compile("[0-9a-f]{64}(_[0-9]{1,5})?(\\.[a-z0-9]{1,5})?");
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,5}");
+
+    private final Path root;
+    private final Path tmpDir;
+    private final Map<String, Integer> pins = new ConcurrentHashMap<>();
+
+    public LocalBlobStore(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+        this.tmpDir = this.root.resolve(".tmp");
+        try {
+            Files.createDirectories(tmpDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create storage directory " + this.root, e);
+        }
+    }
+
+    @Override
+    public String put(InputStream content, String originalFilename) throws IOException {
+        Path tmp = Files.createTempFile(tmpDir, "upload-", ".part");
+        try {
+            MessageDigest sha256 = sha256();
+            try (InputStream in = new DigestInputStream(content, sha256)) {
+                Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            String key = HexFormat.of().formatHex(sha256.digest()) + extensionOf(originalFilename);
+            Path target = resolve(key);
+            // Pin before looking for an existing copy, so it cannot be cleaned up from under us
+            pins.merge(key, 1, Integer::sum);
+            try {
+                if (Files.exists(target)) {
+                    return key; // same bytes already stored
+                }
+
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    try {
+                        Files.move(tmp, target);
+                    } catch (FileAlreadyExistsException raced) {
+                        // a concurrent upload of the same bytes got there first
+                    }
+                }
+                return key;
+            } catch (IOException | RuntimeException e) {
+                release(key);
+                throw e;
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public void putDerived(String key, InputStream content) throws IOException {
+        Path target = resolve(key);
+        Path tmp = Files.createTempFile(tmpDir, "derived-", ".part");
+        try {
+            Files.copy(content, tmp, StandardCopyOption.REPLACE_EXISTING);
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public Resource get(String key) {
+        Path path = resolveOrNull(key);
+        return path != null && Files.isRegularFile(path) ? new FileSystemResource(path) : null;
+    }
+
+    @Override
+    public boolean exists(String key) {
+        Path path = resolveOrNull(key);
+        return path != null && Files.isRegularFile(path);
+    }
+
+    @Override
+    public void release(String key) {
+        pins.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+    }
+
+    @Override
+    public boolean deleteIfUnreferenced(String key, BooleanSupplier isReferenced) throws IOException {
+        Path path = resolveOrNull(key);
+        if (path == null) {
+            return false;
+        }
+        IOException[] failure = new IOException[1];
+        boolean[] deleted = new boolean[1];
+        // compute() holds the key's slot, so no put can pin it between the check and the delete
+        pins.compute(key, (k, count) -> {
+            if (count == null && !isReferenced.getAsBoolean()) {
+                try {
+                    deleted[0] = Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            }
+            return count;
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        return deleted[0];
+    }
+
+    // Number of uploads currently holding a pin on the key.
+    int pinCount(String key) {
+        return pins.getOrDefault(key, 0);
+    }
+
+    private Path resolveOrNull(String key) {
+        try {
+            return resolve(key);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private Path resolve(String key) {
+        if (key == null || key.isEmpty() || key.contains("/") || key.contains("\\") || key.startsWith(".")) {
+            throw new IllegalArgumentException("Invalid blob key");
+        }
+        Path path = HASHED_KEY.matcher(key).matches()
+                ? root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key)
+                : root.resolve(key); // legacy flat layout
+        path = path.normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Invalid blob key");
+        }
+        return path;
+    }
+
+    private static String extensionOf(String filename) {
+        if (filename == null) {
+            return "";
+        }
+        int dot = filename.lastIndexOf('.');
+        if (dot < 0 || dot == filename.length() - 1) {
+            return "";
+        }
+        String ext = filename.substring(dot + 1).toLowerCase(Locale.ROOT);
+        if (ext.equals("jpeg")) {
+            ext = "jpg";
+        }
+        return EXTENSION.matcher(ext).matches() ? "." + ext : "";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
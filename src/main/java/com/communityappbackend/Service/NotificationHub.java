@@ -0,0 +1,286 @@
+package com.communityappbackend.Service;
+
+import com.communityappbackend.Model.Notification;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * In-process fan-out of new notifications to the user's open Server-Sent Events streams.
+ *
+ * Connections are async servlet requests, so an idle stream holds a socket but no thread.
+ * Each connection has its own bounded buffer; a fixed pool of sender threads drains buffers,
+ * one drain at a time per connection. A client that falls a whole buffer behind is disconnected
+ * rather than silently skipped: it reconnects with Last-Event-ID and the missed notifications
+ * are replayed from the database. A comment line is sent every heartbeat interval to keep
+ * proxies from closing idle streams and to notice dead clients.
+ *
+ * Sends are blocking servlet writes. A client that stops reading (full TCP window) holds the
+ * sender writing to it until the container's write timeout (server.tomcat.connection-timeout)
+ * fails the write and the connection is closed. Until then that sender serves nobody else, so
+ * every stalled client adds delay for the rest; sender-threads is sized above the number of
+ * clients expected to stall within one write timeout.
+ *
+ * Delivery is at-least-once; clients should ignore notification ids they have already seen.
+ */
+@Service
+public class NotificationHub {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationHub.class);
+
+    private static final Object HEARTBEAT = new Object();
+
+    private final Map<String, List<Connection>> connectionsByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    private final ThreadPoolExecutor senders;
+    private final ScheduledExecutorService heartbeats;
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final int maxConnectionsPerUser;
+
+    public NotificationHub(MeterRegistry meterRegistry,
+                           @Value("${notifications.stream.timeout:PT30M}") Duration timeout,
+                           @Value("${notifications.stream.heartbeat:PT25S}") Duration heartbeat,
+                           @Value("${notifications.stream.buffer-size:64}") int bufferSize,
+                           @Value("${notifications.stream.max-per-user:5}") int maxConnectionsPerUser,
+                           @Value("${notifications.stream.sender-threads:16}") int senderThreads) {
+        this.timeoutMillis = timeout.toMillis();
+        this.bufferSize = bufferSize;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+
+        AtomicInteger threadNo = new AtomicInteger();
+        // The queue holds at most one drain task per connection (see Connection.draining)
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "notification-sse-" + threadNo.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "notification-sse-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        long heartbeatMillis = heartbeat.toMillis();
+        heartbeats.scheduleAtFixedRate(this::sendHeartbeats, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("notifications.stream.connections", connectionCount, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        connectionsByUser.values().forEach(list -> list.forEach(Connection::close));
+        senders.shutdown();
+    }
+
+    /**
+     * Opens a stream for the user. The connection starts buffering live notifications before
+     * {@code replay} runs, so nothing committed in between is lost; replayed ones are sent
+     * first and live duplicates of them are dropped.
+     */
+    public SseEmitter connect(String userId, Supplier<List<Notification>> replay) {
+        return connect(userId, replay, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter connect(String userId, Supplier<List<Notification>> replay, SseEmitter emitter) {
+        Connection connection = new Connection(userId, emitter);
+        connection.emitter.onCompletion(() -> remove(connection));
+        connection.emitter.onTimeout(connection::close);
+        connection.emitter.onError(e -> connection.close());
+
+        Connection evicted = register(connection);
+        if (evicted != null) {
+            evicted.close();
+        }
+        connection.start(replay.get());
+        return connection.emitter;
+    }
+
+    public void publish(Collection<Notification> notifications) {
+        for (Notification notification : notifications) {
+            List<Connection> connections = connectionsByUser.get(notification.getUserId());
+            if (connections != null) {
+                for (Connection connection : connections) {
+                    connection.offer(notification);
+                }
+            }
+        }
+    }
+
+    // Event id: created_at millis and notification id, which is what a replay resumes from
+    public static String eventId(Notification notification) {
+        long createdAt = notification.getCreatedAt() != null ? notification.getCreatedAt().getTime() : 0L;
+        return createdAt + "_" + notification.getNotificationId();
+    }
+
+    // Adds the connection; returns the user's oldest one if that pushes them over the limit
+    private Connection register(Connection connection) {
+        Connection[] evicted = new Connection[1];
+        connectionsByUser.compute(connection.userId, (userId, existing) -> {
+            List<Connection> list = existing != null ? existing : new CopyOnWriteArrayList<>();
+            if (list.size() >= maxConnectionsPerUser) {
+                evicted[0] = list.remove(0);
+                connectionCount.decrementAndGet();
+            }
+            list.add(connection);
+            return list;
+        });
+        connectionCount.incrementAndGet();
+        return evicted[0];
+    }
+
+    private void remove(Connection connection) {
+        connectionsByUser.computeIfPresent(connection.userId, (userId, list) -> {
+            if (list.remove(connection)) {
+                connectionCount.decrementAndGet();
+            }
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private void sendHeartbeats() {
+        try {
+            connectionsByUser.values().forEach(list -> list.forEach(c -> c.offer(HEARTBEAT)));
+        } catch (Exception e) {
+            log.warn("Notification heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    private final class Connection {
+
+        private final String userId;
+        private final SseEmitter emitter;
+
+        // Guarded by this
+        private ArrayDeque<Object> pending = new ArrayDeque<>();
+        private boolean started;
+        private boolean draining;
+        private boolean closed;
+
+        Connection(String userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void start(List<Notification> replay) {
+            boolean drain;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                Set<String> replayed = new HashSet<>();
+                ArrayDeque<Object> ordered = new ArrayDeque<>();
+                for (Notification notification : replay) {
+                    replayed.add(notification.getNotificationId());
+                    ordered.add(notification);
+                }
+                for (Object live : pending) {
+                    if (!(live instanceof Notification n) || !replayed.contains(n.getNotificationId())) {
+                        ordered.add(live);
+                    }
+                }
+                pending = ordered;
+                started = true;
+                drain = !pending.isEmpty();
+                draining = drain;
+            }
+            if (drain) {
+                scheduleDrain();
+            }
+        }
+
+        void offer(Object event) {
+            boolean drain;
+            boolean overflow = false;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (pending.size() >= bufferSize) {
+                    overflow = true;
+                    drain = false;
+                } else {
+                    pending.add(event);
+                    drain = started && !draining;
+                    if (drain) {
+                        draining = true;
+                    }
+                }
+            }
+            if (overflow) {
+                // Too far behind: let the client reconnect and catch up from Last-Event-ID
+                close();
+            } else if (drain) {
+                scheduleDrain();
+            }
+        }
+
+        private void scheduleDrain() {
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                close();
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Object next;
+                synchronized (this) {
+                    next = closed ? null : pending.poll();
+                    if (next == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    if (next == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    } else {
+                        Notification notification = (Notification) next;
+                        emitter.send(SseEmitter.event()
+                                .id(eventId(notification))
+                                .name("notification")
+                                .data(notification, MediaType.APPLICATION_JSON));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    close();
+                    return;
+                }
+            }
+        }
+
+        void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                pending.clear();
+            }
+            remove(this);
+            try {
+                emitter.complete();
+            } catch (Exception ignored) {
+                // already completed by the container
+            }
+        }
+    }
+}
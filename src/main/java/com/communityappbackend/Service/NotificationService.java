@@ -3,17 +3,35 @@ package com.communityappbackend.Service;
 import com.communityappbackend.DTO.NotificationDTO;
 import com.communityappbackend.Model.Notification;
 import com.communityappbackend.Repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Service
 public class NotificationService {
     private final NotificationRepository notificationRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final NotificationHub notificationHub;
+    private final int replayLimit;
 
-    public NotificationService(NotificationRepository notificationRepo) {
+    public NotificationService(NotificationRepository notificationRepo,
+                               JdbcTemplate jdbcTemplate,
+                               NotificationHub notificationHub,
+                               @Value("${notifications.stream.replay-limit:100}") int replayLimit) {
         this.notificationRepo = notificationRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.notificationHub = notificationHub;
+        this.replayLimit = replayLimit;
     }
 
     public Notification createNotification(NotificationDTO dto) {
@@ -22,7 +40,81 @@ public class NotificationService {
                 .message(dto.getMessage())
                 .read(false)
                 .build();
-        return notificationRepo.save(notification);
+        Notification saved = notificationRepo.save(notification);
+        publishAfterCommit(List.of(saved));
+        return saved;
+    }
+
+    // Inserts many notifications as one JDBC batch; joins the caller's transaction if there is one.
+    public void createNotifications(List<NotificationDTO> dtos) {
+        if (dtos.isEmpty()) {
+            return;
+        }
+        Timestamp createdAt = Notification.now();
+        List<Notification> notifications = new ArrayList<>(dtos.size());
+        for (NotificationDTO dto : dtos) {
+            notifications.add(Notification.builder()
+                    .notificationId(UUID.randomUUID().toString())
+                    .userId(dto.getUserId())
+                    .message(dto.getMessage())
+                    .read(false)
+                    .createdAt(createdAt)
+                    .build());
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO notifications (notification_id, user_id, message, `read`, created_at) VALUES (?, ?, ?, ?, ?)",
+                notifications,
+                notifications.size(),
+                (ps, n) -> {
+                    ps.setString(1, n.getNotificationId());
+                    ps.setString(2, n.getUserId());
+                    ps.setString(3, n.getMessage());
+                    ps.setBoolean(4, false);
+                    ps.setTimestamp(5, n.getCreatedAt());
+                });
+        publishAfterCommit(notifications);
+    }
+
+    /**
+     * Opens a push stream for the user. With a Last-Event-ID (from a dropped stream) the
+     * notifications created since that event are replayed first, up to the replay limit.
+     */
+    public SseEmitter openStream(String userId, String lastEventId) {
+        return notificationHub.connect(userId, () -> replaySince(userId, lastEventId));
+    }
+
+    // Rows from the same second as the last event are re-sent (except that event itself), since
+    // created_at has one-second resolution; clients drop ids they already have.
+    private List<Notification> replaySince(String userId, String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return List.of();
+        }
+        int sep = lastEventId.indexOf('_');
+        long since;
+        try {
+            since = Long.parseLong(sep > 0 ? lastEventId.substring(0, sep) : lastEventId);
+        } catch (NumberFormatException e) {
+            return List.of();
+        }
+        String lastId = sep > 0 ? lastEventId.substring(sep + 1) : null;
+        List<Notification> replay = new ArrayList<>(notificationRepo.findSince(
+                userId, new Timestamp(since), PageRequest.of(0, replayLimit)));
+        replay.removeIf(n -> n.getNotificationId().equals(lastId));
+        return replay;
+    }
+
+    // Pushes only once the rows are visible, so a client never sees a rolled-back notification
+    private void publishAfterCommit(List<Notification> notifications) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    notificationHub.publish(notifications);
+                }
+            });
+        } else {
+            notificationHub.publish(notifications);
+        }
     }
 
     public List<Notification> getNotificationsByUserId(String userId) {
@@ -0,0 +1,90 @@
+package com.communityappbackend.Service;
+
+import com.communityappbackend.DTO.OwnerSummary;
+import com.communityappbackend.Model.User;
+import com.communityappbackend.Model.UserProfileImage;
+import com.communityappbackend.Repository.UserProfileImageRepository;
+import com.communityappbackend.Repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded, TTL-evicting cache of owner name/contact/avatar keyed by user id.
+ * Misses for a whole page are loaded together (one users query, one avatar query).
+ * Hit/miss counts are published as cache.* metrics with cache=ownerSummary.
+ */
+@Service
+public class OwnerSummaryCache {
+
+    private final UserRepository userRepo;
+    private final UserProfileImageRepository userProfileImageRepo;
+    private final Cache<String, OwnerSummary> cache;
+
+    public OwnerSummaryCache(UserRepository userRepo,
+                             UserProfileImageRepository userProfileImageRepo,
+                             MeterRegistry meterRegistry,
+                             @Value("${owner.cache.max-size:10000}") long maxSize,
+                             @Value("${owner.cache.ttl:PT10M}") Duration ttl) {
+        this.userRepo = userRepo;
+        this.userProfileImageRepo = userProfileImageRepo;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "ownerSummary");
+    }
+
+    public OwnerSummary get(String userId) {
+        return getAll(Collections.singleton(userId)).get(userId);
+    }
+
+    // Unknown user ids are simply absent from the result.
+    public Map<String, OwnerSummary> getAll(Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return cache.getAll(new HashSet<>(userIds), this::loadAll);
+    }
+
+    // Call whenever a user's name, contact fields or avatar change.
+    public void invalidate(String userId) {
+        cache.invalidate(userId);
+    }
+
+    private Map<String, OwnerSummary> loadAll(Set<? extends String> userIds) {
+        List<String> ids = new ArrayList<>(userIds);
+        Map<String, String> avatars = userProfileImageRepo.findByUserIdIn(ids).stream()
+                .filter(upi -> upi.getImagePath() != null && !upi.getImagePath().isEmpty())
+                .collect(Collectors.toMap(UserProfileImage::getUserId, UserProfileImage::getImagePath, (a, b) -> b));
+
+        return userRepo.findAllById(ids).stream()
+                .map(user -> toSummary(user, avatars.get(user.getUserId())))
+                .collect(Collectors.toMap(OwnerSummary::getUserId, Function.identity()));
+    }
+
+    private OwnerSummary toSummary(User user, String avatarPath) {
+        String profileImageUrl = "";
+        if (avatarPath != null) {
+            String fileName = avatarPath.replace("Assets/", "");
+            profileImageUrl = "http://10.0.2.2:8080/image/" + fileName;
+        }
+        return OwnerSummary.builder()
+                .userId(user.getUserId())
+                .fullName(user.getFullName())
+                .email(user.getEmail())
+                .phone(user.getPhone())
+                .address(user.getAddress() != null ? user.getAddress() : "")
+                .profileImageUrl(profileImageUrl)
+                .build();
+    }
+}
@@ -1,70 +1,202 @@
 package com.communityappbackend.Service;
 
+import com.communityappbackend.DTO.CursorPage;
 import com.communityappbackend.DTO.ItemResponse;
+import com.communityappbackend.DTO.ItemSummaryResponse;
+import com.communityappbackend.DTO.OwnerSummary;
+import com.communityappbackend.DTO.PageCursor;
 import com.communityappbackend.Model.Item;
 import com.communityappbackend.Model.User;
-import com.communityappbackend.Model.UserProfileImage;
+import com.communityappbackend.Repository.FeedSort;
+import com.communityappbackend.Repository.ItemFeedQuery;
+import com.communityappbackend.Repository.ItemListRow;
 import com.communityappbackend.Repository.ItemRepository;
-import com.communityappbackend.Repository.UserProfileImageRepository;
-import com.communityappbackend.Repository.UserRepository;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
 import java.sql.Timestamp;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 public class TradeItemService {
 
+    // Search results are ranked, not keyed, so their cursor wraps a plain offset
+    private static final String SEARCH_CURSOR_ID = "search";
+    private static final int STREAM_CHUNK = 200;
+
     private final ItemRepository itemRepo;
-    private final UserRepository userRepo;
-    private final UserProfileImageRepository userProfileImageRepo;
+    private final OwnerSummaryCache ownerSummaryCache;
+    private final ItemSearchIndex searchIndex;
+    private final ItemLocationIndex locationIndex;
+    private final ItemDetailCache itemDetailCache;
+    private final ItemSummaryAssembler summaryAssembler;
 
     public TradeItemService(
             ItemRepository itemRepo,
-            UserRepository userRepo,
-            UserProfileImageRepository userProfileImageRepo
+            OwnerSummaryCache ownerSummaryCache,
+            ItemSearchIndex searchIndex,
+            ItemLocationIndex locationIndex,
+            ItemDetailCache itemDetailCache,
+            ItemSummaryAssembler summaryAssembler
     ) {
         this.itemRepo = itemRepo;
-        this.userRepo = userRepo;
-        this.userProfileImageRepo = userProfileImageRepo;
+        this.ownerSummaryCache = ownerSummaryCache;
+        this.searchIndex = searchIndex;
+        this.locationIndex = locationIndex;
+        this.itemDetailCache = itemDetailCache;
+        this.summaryAssembler = summaryAssembler;
     }
 
-    public List<ItemResponse> getAllActiveExceptUser(Authentication auth, Long categoryId) {
+    // ACTIVE items of other users, one keyset page at a time, newest first or by price.
+    // near = "city" or "province" restricts the feed to items whose owner is in the caller's region.
+    public CursorPage<ItemSummaryResponse> getAllActiveExceptUser(Authentication auth, Long categoryId, String near,
+                                                          Double minPrice, Double maxPrice, String sort,
+                                                          String cursor, Integer limit) {
         User user = (User) auth.getPrincipal();
-        String currentUserId = user.getUserId();
-
-        List<Item> items;
-        if (categoryId != null) {
-            items = itemRepo.findByStatusAndOwnerIdNotAndCategoryId(
-                    "ACTIVE", currentUserId, categoryId
-            );
-        } else {
-            items = itemRepo.findByStatusAndOwnerIdNot("ACTIVE", currentUserId);
+        int pageSize = PageCursor.clampLimit(limit);
+        PageCursor after = PageCursor.decode(cursor);
+        FeedSort feedSort = FeedSort.parse(sort);
+
+        if (near != null && !near.isBlank()) {
+            if (feedSort != FeedSort.NEWEST) {
+                throw new RuntimeException("near only supports sort=newest");
+            }
+            return getNearby(user, parseScope(near), categoryId, minPrice, maxPrice, after, pageSize);
+        }
+
+        List<ItemListRow> rows = itemRepo.findFeedPage(ItemFeedQuery.builder()
+                .excludeOwnerId(user.getUserId())
+                .categoryId(categoryId)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .sort(feedSort)
+                .after(after)
+                .limit(pageSize + 1)
+                .build());
+
+        CursorPage<ItemListRow> page = CursorPage.of(rows, pageSize, feedSort::cursorOf);
+        return new CursorPage<>(summaryAssembler.toSummaries(page.getItems(), true), page.getNextCursor());
+    }
+
+    // Streams the whole feed for the given filters, one chunk at a time (no near-me mode).
+    public void streamActiveExceptUser(String userId, Long categoryId, Double minPrice, Double maxPrice,
+                                       String sort, Consumer<List<ItemSummaryResponse>> sink) {
+        FeedSort feedSort = FeedSort.parse(sort);
+        PageCursor after = null;
+        List<ItemListRow> rows;
+        do {
+            rows = itemRepo.findFeedPage(ItemFeedQuery.builder()
+                    .excludeOwnerId(userId)
+                    .categoryId(categoryId)
+                    .minPrice(minPrice)
+                    .maxPrice(maxPrice)
+                    .sort(feedSort)
+                    .after(after)
+                    .limit(STREAM_CHUNK)
+                    .build());
+            if (!rows.isEmpty()) {
+                sink.accept(summaryAssembler.toSummaries(rows, true));
+                after = feedSort.cursorOf(rows.get(rows.size() - 1));
+            }
+        } while (rows.size() == STREAM_CHUNK);
+    }
+
+    private CursorPage<ItemSummaryResponse> getNearby(User user, ItemLocationIndex.Scope scope, Long categoryId,
+                                               Double minPrice, Double maxPrice, PageCursor after, int pageSize) {
+        List<ItemLocationIndex.Entry> entries = locationIndex.page(scope, user.getCity(), user.getProvince(),
+                user.getUserId(), categoryId, minPrice, maxPrice, after, pageSize + 1);
+        CursorPage<ItemLocationIndex.Entry> page = CursorPage.of(entries, pageSize, ItemLocationIndex.Entry::cursor);
+        if (page.getItems().isEmpty()) {
+            return new CursorPage<>(Collections.emptyList(), null);
+        }
+
+        // Load just this page, keep index order and drop anything no longer ACTIVE
+        List<String> ids = page.getItems().stream().map(ItemLocationIndex.Entry::itemId).collect(Collectors.toList());
+        Map<String, ItemListRow> byId = itemRepo.findListRowsByItemIdIn(ids).stream()
+                .filter(i -> "ACTIVE".equals(i.getStatus()))
+                .collect(Collectors.toMap(ItemListRow::getItemId, i -> i));
+        List<ItemListRow> rows = ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+        return new CursorPage<>(summaryAssembler.toSummaries(rows, true), page.getNextCursor());
+    }
+
+    private ItemLocationIndex.Scope parseScope(String near) {
+        try {
+            return ItemLocationIndex.Scope.valueOf(near.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("near must be city or province");
         }
+    }
 
-        return items.stream()
-                .map(this::toItemResponseWithOwner)
+    private CursorPage<ItemResponse> toResponsesWithOwners(List<Item> items, String nextCursor) {
+        Map<String, OwnerSummary> owners = ownerSummaryCache.getAll(items.stream()
+                .map(Item::getOwnerId)
+                .collect(Collectors.toSet()));
+        List<ItemResponse> responses = items.stream()
+                .map(i -> toItemResponseWithOwner(i, owners.get(i.getOwnerId())))
                 .collect(Collectors.toList());
+        return new CursorPage<>(responses, nextCursor);
     }
 
+    // Full-text search over titles and descriptions of other users' ACTIVE items, best match first.
+    public CursorPage<ItemResponse> search(Authentication auth, String q, String cursor, Integer limit) {
+        User user = (User) auth.getPrincipal();
+        int pageSize = PageCursor.clampLimit(limit);
+        PageCursor after = PageCursor.decode(cursor);
+        int offset = after != null ? parseOffset(after) : 0;
+
+        List<String> rankedIds = searchIndex.search(q, user.getUserId(), offset, pageSize + 1);
+        String nextCursor = null;
+        if (rankedIds.size() > pageSize) {
+            rankedIds = rankedIds.subList(0, pageSize);
+            nextCursor = new PageCursor(String.valueOf(offset + pageSize), SEARCH_CURSOR_ID).encode();
+        }
+        if (rankedIds.isEmpty()) {
+            return new CursorPage<>(Collections.emptyList(), null);
+        }
+
+        Map<String, Item> byId = itemRepo.findAllWithImagesByItemIdIn(rankedIds).stream()
+                .filter(i -> "ACTIVE".equals(i.getStatus()))
+                .collect(Collectors.toMap(Item::getItemId, i -> i));
+        List<Item> items = rankedIds.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+        return toResponsesWithOwners(items, nextCursor);
+    }
+
+    private int parseOffset(PageCursor cursor) {
+        if (!SEARCH_CURSOR_ID.equals(cursor.getId())) {
+            throw new RuntimeException("Invalid cursor");
+        }
+        try {
+            return Math.max(0, Integer.parseInt(cursor.getKey()));
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    // Served from ItemDetailCache; concurrent misses for one item share a single database load.
     public ItemResponse getItemDetails(String itemId) {
-        Optional<Item> opt = itemRepo.findById(itemId);
+        return itemDetailCache.get(itemId, this::loadItemDetails);
+    }
+
+    private ItemDetailCache.Entry loadItemDetails(String itemId) {
+        Optional<Item> opt = itemRepo.findWithImagesByItemId(itemId);
         if (opt.isEmpty()) {
             return null;
         }
-        return toItemResponseWithOwner(opt.get());
+        Item item = opt.get();
+        ItemResponse response = toItemResponseWithOwner(item, ownerSummaryCache.get(item.getOwnerId()));
+        return new ItemDetailCache.Entry(response, item.getOwnerId());
     }
 
-    private ItemResponse toItemResponseWithOwner(Item item) {
+    private ItemResponse toItemResponseWithOwner(Item item, OwnerSummary owner) {
         // Convert item images to full URLs
         List<String> imageUrls = item.getImages().stream()
-                .map(img -> {
-                    String fileName = img.getImagePath().replace("Assets/", "");
-                    return "http://10.0.2.2:8080/api/items/image/" + fileName;
-                })
+                .map(img -> ItemImageUrls.original(img.getImagePath()))
+                .collect(Collectors.toList());
+        List<String> thumbnailUrls = item.getImages().stream()
+                .map(img -> ItemImageUrls.thumbnail(img.getImagePath()))
                 .collect(Collectors.toList());
 
         // Format created_at
@@ -75,34 +207,6 @@ public class TradeItemService {
                     .format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
         }
 
-        // Fetch owner data
-        User owner = userRepo.findById(item.getOwnerId()).orElse(null);
-
-        String ownerFullName = "";
-        String ownerEmail = "";
-        String ownerPhone = "";
-        String ownerAddress = "";
-        String ownerProfileImageUrl = "";
-
-        if (owner != null) {
-            ownerFullName = owner.getFullName();
-            ownerEmail = owner.getEmail();
-            ownerPhone = owner.getPhone();
-            ownerAddress = (owner.getAddress() != null) ? owner.getAddress() : "";
-
-            // Fetch user's profile image from DB (if exists)
-            Optional<UserProfileImage> upiOpt =
-                    userProfileImageRepo.findByUserId(owner.getUserId());
-            if (upiOpt.isPresent()) {
-                UserProfileImage upi = upiOpt.get();
-                // Build the fully qualified URL for the profile image
-                if (upi.getImagePath() != null && !upi.getImagePath().isEmpty()) {
-                    String fileName = upi.getImagePath().replace("Assets/", "");
-                    ownerProfileImageUrl = "http://10.0.2.2:8080/image/" + fileName;
-                }
-            }
-        }
-
         return ItemResponse.builder()
                 .itemId(item.getItemId())
                 .title(item.getTitle())
@@ -110,13 +214,14 @@ public class TradeItemService {
                 .price(item.getPrice())
                 .categoryId(item.getCategoryId())
                 .images(imageUrls)
+                .thumbnails(thumbnailUrls)
                 .status(item.getStatus())
                 .createdAt(createdAtStr)
-                .ownerFullName(ownerFullName)
-                .ownerEmail(ownerEmail)
-                .ownerPhone(ownerPhone)
-                .ownerAddress(ownerAddress)
-                .ownerProfileImage(ownerProfileImageUrl)
+                .ownerFullName(owner != null ? owner.getFullName() : "")
+                .ownerEmail(owner != null ? owner.getEmail() : "")
+                .ownerPhone(owner != null ? owner.getPhone() : "")
+                .ownerAddress(owner != null ? owner.getAddress() : "")
+                .ownerProfileImage(owner != null ? owner.getProfileImageUrl() : "")
                 .build();
     }
 }
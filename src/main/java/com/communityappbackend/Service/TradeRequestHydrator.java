@@ -0,0 +1,152 @@
+package com.communityappbackend.Service;
+
+import com.communityappbackend.DTO.TradeRequestDetailedDTO;
+import com.communityappbackend.Model.Item;
+import com.communityappbackend.Model.ItemImage;
+import com.communityappbackend.Model.TradeRequest;
+import com.communityappbackend.Model.User;
+import com.communityappbackend.Repository.ItemRepository;
+import com.communityappbackend.Repository.UserRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Builds TradeRequestDetailedDTOs for a whole page of requests at once.
+ * All referenced items (with their images) are loaded in one query and all
+ * senders/receivers in a second one, so the cost does not grow with page size.
+ */
+@Service
+public class TradeRequestHydrator {
+
+    private final ItemRepository itemRepo;
+    private final UserRepository userRepo;
+
+    public TradeRequestHydrator(ItemRepository itemRepo, UserRepository userRepo) {
+        this.itemRepo = itemRepo;
+        this.userRepo = userRepo;
+    }
+
+    public List<TradeRequestDetailedDTO> toDetailedDTOs(List<TradeRequest> requests) {
+        if (requests.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // 1) Requested and offered items, images fetched in the same query
+        Set<String> itemIds = new HashSet<>();
+        for (TradeRequest req : requests) {
+            itemIds.add(req.getItemId());
+            if (isItemTrade(req)) {
+                itemIds.add(req.getReceiverSelectedItemId());
+            }
+        }
+        Map<String, Item> items = itemRepo.findAllWithImagesByItemIdIn(itemIds).stream()
+                .collect(Collectors.toMap(Item::getItemId, Function.identity()));
+
+        // 2) Senders plus the owners (receivers) of the requested items
+        Set<String> userIds = new HashSet<>();
+        for (TradeRequest req : requests) {
+            userIds.add(req.getOfferedBy());
+            Item requested = items.get(req.getItemId());
+            if (requested != null) {
+                userIds.add(requested.getOwnerId());
+            }
+        }
+        Map<String, User> users = userRepo.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getUserId, Function.identity()));
+
+        return requests.stream()
+                .map(req -> toDetailedDTO(req, items, users))
+                .collect(Collectors.toList());
+    }
+
+    private TradeRequestDetailedDTO toDetailedDTO(TradeRequest req, Map<String, Item> items, Map<String, User> users) {
+        User sender = users.get(req.getOfferedBy());
+        String offeredByName = (sender != null) ? sender.getFullName() : "Unknown User";
+        String senderEmail = (sender != null) ? sender.getEmail() : "";
+        String senderPhone = (sender != null) ? sender.getPhone() : "";
+        String senderAddress = (sender != null) ? sender.getAddress() : "";
+
+        Item requestedItem = items.get(req.getItemId());
+        String requestedTitle = (requestedItem != null) ? requestedItem.getTitle() : "Unknown Item";
+        String requestedDescription = (requestedItem != null) ? requestedItem.getDescription() : null;
+        Double requestedPrice = (requestedItem != null) ? requestedItem.getPrice() : null;
+        List<String> requestedImages = (requestedItem != null)
+                ? mapImagesToPaths(requestedItem.getImages())
+                : Collections.emptyList();
+
+        // Get receiver info from the requested item's owner
+        String receiverUserId = "";
+        String receiverFullName = "";
+        String receiverEmail = "";
+        String receiverPhone = "";
+        String receiverAddress = "";
+        if (requestedItem != null) {
+            User receiver = users.get(requestedItem.getOwnerId());
+            if (receiver != null) {
+                receiverUserId = receiver.getUserId();
+                receiverFullName = receiver.getFullName();
+                receiverEmail = receiver.getEmail();
+                receiverPhone = receiver.getPhone();
+                receiverAddress = receiver.getAddress();
+            }
+        }
+
+        // Offered item details
+        String offeredItemTitle = null;
+        String offeredItemDescription = null;
+        Double offeredItemPrice = null;
+        List<String> offeredItemImages = Collections.emptyList();
+        if (isItemTrade(req)) {
+            Item offeredItem = items.get(req.getReceiverSelectedItemId());
+            if (offeredItem != null) {
+                offeredItemTitle = offeredItem.getTitle();
+                offeredItemDescription = offeredItem.getDescription();
+                offeredItemPrice = offeredItem.getPrice();
+                offeredItemImages = mapImagesToPaths(offeredItem.getImages());
+            }
+        }
+
+        return TradeRequestDetailedDTO.builder()
+                .requestId(req.getRequestId())
+                .status(req.getStatus())
+                .moneyOffer(req.getMoneyOffer())
+                .offeredByUserId(req.getOfferedBy())
+                .offeredByUserName(offeredByName)
+                .tradeType(req.getTradeType())
+                .requestedItemId(req.getItemId())
+                .requestedItemTitle(requestedTitle)
+                .requestedItemDescription(requestedDescription)
+                .requestedItemPrice(requestedPrice)
+                .requestedItemImages(requestedImages)
+                .offeredItemId(req.getReceiverSelectedItemId())
+                .offeredItemTitle(offeredItemTitle)
+                .offeredItemDescription(offeredItemDescription)
+                .offeredItemPrice(offeredItemPrice)
+                .offeredItemImages(offeredItemImages)
+                // Set contact information
+                .senderEmail(senderEmail)
+                .senderPhone(senderPhone)
+                .senderAddress(senderAddress)
+                .receiverUserId(receiverUserId)
+                .receiverFullName(receiverFullName)
+                .receiverEmail(receiverEmail)
+                .receiverPhone(receiverPhone)
+                .receiverAddress(receiverAddress)
+                .build();
+    }
+
+    private boolean isItemTrade(TradeRequest req) {
+        return "ITEM".equals(req.getTradeType()) && req.getReceiverSelectedItemId() != null;
+    }
+
+    // Map images to URLs.
+    private List<String> mapImagesToPaths(List<ItemImage> images) {
+        if (images == null) return Collections.emptyList();
+        return images.stream()
+                .map(img -> ItemImageUrls.original(img.getImagePath()))
+                .collect(Collectors.toList());
+    }
+}
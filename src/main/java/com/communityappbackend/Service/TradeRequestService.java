@@ -1,6 +1,10 @@
 package com.communityappbackend.Service;
 
-import com.communityappbackend.DTO.ItemResponse;
+import com.communityappbackend.DTO.BulkTradeDecisionRequest;
+import com.communityappbackend.DTO.BulkTradeDecisionResult;
+import com.communityappbackend.DTO.CursorPage;
+import com.communityappbackend.DTO.ItemSummaryResponse;
+import com.communityappbackend.DTO.PageCursor;
 import com.communityappbackend.DTO.TradeRequestDTO;
 import com.communityappbackend.DTO.TradeRequestDetailedDTO;
 import com.communityappbackend.Model.*;
@@ -8,28 +12,46 @@ import com.communityappbackend.Repository.TradeRequestRepository;
 import com.communityappbackend.Repository.ItemRepository;
 import com.communityappbackend.Repository.UserRepository;
 import com.communityappbackend.DTO.NotificationDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 public class TradeRequestService {
 
+    private static final int MAX_BULK_SIZE = 100;
+    private static final int STREAM_CHUNK = 200;
+
     private final TradeRequestRepository tradeRequestRepo;
     private final ItemRepository itemRepo;
     private final UserRepository userRepo;
     private final NotificationService notificationService;
+    private final TradeRequestHydrator hydrator;
+    private final ItemSummaryAssembler summaryAssembler;
+
+    // The request's persistence context (open-in-view), cleared between stream chunks
+    @PersistenceContext
+    private EntityManager entityManager;
 
     public TradeRequestService(TradeRequestRepository tradeRequestRepo,
                                ItemRepository itemRepo,
                                UserRepository userRepo,
-                               NotificationService notificationService) {
+                               NotificationService notificationService,
+                               TradeRequestHydrator hydrator,
+                               ItemSummaryAssembler summaryAssembler) {
         this.tradeRequestRepo = tradeRequestRepo;
         this.itemRepo = itemRepo;
         this.userRepo = userRepo;
         this.notificationService = notificationService;
+        this.hydrator = hydrator;
+        this.summaryAssembler = summaryAssembler;
     }
 
     // 1) Create a trade request
@@ -45,195 +67,279 @@ public class TradeRequestService {
         return tradeRequestRepo.save(req);
     }
 
-    // 2) Get all requests for items the current user owns
-    public List<TradeRequest> getIncomingRequests(Authentication auth) {
+    // 2) Get requests for items the current user owns, one keyset page at a time.
+    public CursorPage<TradeRequest> getIncomingRequests(Authentication auth, String status,
+                                                        String cursor, Integer limit) {
         User user = (User) auth.getPrincipal();
-        String currentUserId = user.getUserId();
-        List<Item> myItems = itemRepo.findByOwnerId(currentUserId);
-        Set<String> myItemIds = myItems.stream()
-                .map(Item::getItemId)
-                .collect(Collectors.toSet());
-        List<TradeRequest> allRequests = tradeRequestRepo.findAll();
-        return allRequests.stream()
-                .filter(r -> myItemIds.contains(r.getItemId()))
-                .collect(Collectors.toList());
+        return findIncomingPage(user.getUserId(), status, cursor, limit);
     }
 
     // 3) Approve a request and notify the sender.
+    // The PENDING check and the update are one conditional statement, so concurrent approvals
+    // (or an approve racing a reject) cannot both win. All other pending offers on the same
+    // item are rejected in the same transaction. The item row is locked first, so approvals of
+    // different offers on one item run one after the other rather than deadlocking.
+    // Only the owner of the item can decide, as in bulkDecide.
+    @Transactional
     public TradeRequest approveRequest(String requestId, String selectedItemId, Authentication auth) {
-        Optional<TradeRequest> opt = tradeRequestRepo.findById(requestId);
-        if (opt.isEmpty()) {
-            throw new RuntimeException("Request not found");
+        lockOwnedItem(requestId, auth);
+        if (tradeRequestRepo.acceptIfPending(requestId, selectedItemId) == 0) {
+            throw notPendingOrMissing(requestId);
         }
-        TradeRequest req = opt.get();
-        if (!"PENDING".equals(req.getStatus())) {
-            throw new RuntimeException("Request is not pending");
+        TradeRequest updated = tradeRequestRepo.findById(requestId)
+                .orElseThrow(() -> new RuntimeException("Request not found"));
+
+        List<TradeRequest> others = tradeRequestRepo.findOtherPendingForUpdate(updated.getItemId(), requestId);
+        if (!others.isEmpty()) {
+            tradeRequestRepo.rejectAllPending(ids(others));
         }
-        req.setReceiverSelectedItemId(selectedItemId);
-        req.setStatus("ACCEPTED");
-        TradeRequest updated = tradeRequestRepo.save(req);
-        // Notify sender
-        User sender = userRepo.findById(req.getOfferedBy()).orElse(null);
-        String senderName = (sender != null) ? sender.getFullName() : "Sender";
-        String message = senderName + ", your trade request has been accepted!";
-        notificationService.createNotification(new NotificationDTO(req.getOfferedBy(), message));
+
+        // Notify the accepted sender and everyone whose offer was closed out
+        Set<String> senderIds = new HashSet<>();
+        senderIds.add(updated.getOfferedBy());
+        others.forEach(r -> senderIds.add(r.getOfferedBy()));
+        Map<String, User> senders = userRepo.findAllById(senderIds).stream()
+                .collect(Collectors.toMap(User::getUserId, u -> u));
+
+        List<NotificationDTO> notifications = new ArrayList<>();
+        notifications.add(acceptedNotification(updated, senders));
+        others.forEach(r -> notifications.add(rejectedNotification(r, senders)));
+        notificationService.createNotifications(notifications);
         return updated;
     }
 
     // 4) Reject a request and notify the sender.
+    @Transactional
     public TradeRequest rejectRequest(String requestId, Authentication auth) {
-        Optional<TradeRequest> opt = tradeRequestRepo.findById(requestId);
-        if (opt.isEmpty()) {
-            throw new RuntimeException("Request not found");
+        lockOwnedItem(requestId, auth);
+        if (tradeRequestRepo.rejectIfPending(requestId) == 0) {
+            throw notPendingOrMissing(requestId);
         }
-        TradeRequest req = opt.get();
-        if (!"PENDING".equals(req.getStatus())) {
-            throw new RuntimeException("Request is not pending");
-        }
-        req.setStatus("REJECTED");
-        TradeRequest updated = tradeRequestRepo.save(req);
+        TradeRequest updated = tradeRequestRepo.findById(requestId)
+                .orElseThrow(() -> new RuntimeException("Request not found"));
         // Notify sender
-        User sender = userRepo.findById(req.getOfferedBy()).orElse(null);
-        String senderName = (sender != null) ? sender.getFullName() : "Sender";
-        String message = senderName + ", your trade request has been rejected.";
-        notificationService.createNotification(new NotificationDTO(req.getOfferedBy(), message));
+        User sender = userRepo.findById(updated.getOfferedBy()).orElse(null);
+        String message = senderName(sender) + ", your trade request has been rejected.";
+        notificationService.createNotification(new NotificationDTO(updated.getOfferedBy(), message));
         return updated;
     }
 
-    // 5) Get detailed incoming requests for items the current user owns.
-    // Optionally, you can allow filtering by status (e.g. "PENDING", "ACCEPTED", "REJECTED")
-    public List<TradeRequestDetailedDTO> getIncomingRequestsDetailed(Authentication auth, String status) {
-        User me = (User) auth.getPrincipal();
-        List<Item> myItems = itemRepo.findByOwnerId(me.getUserId());
-        Set<String> myItemIds = myItems.stream()
-                .map(Item::getItemId)
-                .collect(Collectors.toSet());
-        List<TradeRequest> allRequests = tradeRequestRepo.findAll();
-        List<TradeRequest> incomingForMe = allRequests.stream()
-                .filter(r -> myItemIds.contains(r.getItemId()))
-                .collect(Collectors.toList());
-        if (status != null && !status.isEmpty()) {
-            incomingForMe = incomingForMe.stream()
-                    .filter(r -> r.getStatus().equalsIgnoreCase(status))
-                    .collect(Collectors.toList());
+    // 8) Approve or reject many requests in one transaction.
+    // Only requests on items the caller owns are decided. Those items are locked first (same
+    // order as approveRequest), then the requests in one query; transitions are set-based
+    // updates, senders are loaded in one query and notifications are written as a single JDBC
+    // batch. Every id gets a result.
+    @Transactional
+    public List<BulkTradeDecisionResult> bulkDecide(BulkTradeDecisionRequest dto, Authentication auth) {
+        User user = (User) auth.getPrincipal();
+        String decision = dto.getDecision() != null ? dto.getDecision().trim().toUpperCase() : "";
+        if (!"APPROVE".equals(decision) && !"REJECT".equals(decision)) {
+            throw new RuntimeException("Decision must be APPROVE or REJECT");
         }
-        return incomingForMe.stream().map(this::toDetailedDTO).collect(Collectors.toList());
-    }
-
-    private TradeRequestDetailedDTO toDetailedDTO(TradeRequest req) {
-        User sender = userRepo.findById(req.getOfferedBy()).orElse(null);
-        String offeredByName = (sender != null) ? sender.getFullName() : "Unknown User";
-        String senderEmail = (sender != null) ? sender.getEmail() : "";
-        String senderPhone = (sender != null) ? sender.getPhone() : "";
-        String senderAddress = (sender != null) ? sender.getAddress() : "";
-
-        Item requestedItem = itemRepo.findById(req.getItemId()).orElse(null);
-        String requestedTitle = (requestedItem != null) ? requestedItem.getTitle() : "Unknown Item";
-        String requestedDescription = (requestedItem != null) ? requestedItem.getDescription() : null;
-        Double requestedPrice = (requestedItem != null) ? requestedItem.getPrice() : null;
-        List<String> requestedImages = (requestedItem != null)
-                ? mapImagesToPaths(requestedItem.getImages())
+        List<String> requestIds = dto.getRequestIds() != null
+                ? dto.getRequestIds().stream().filter(Objects::nonNull).distinct().collect(Collectors.toList())
                 : Collections.emptyList();
+        if (requestIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (requestIds.size() > MAX_BULK_SIZE) {
+            throw new RuntimeException("At most " + MAX_BULK_SIZE + " requests can be decided at once");
+        }
+        Map<String, String> selectedItemIds = dto.getSelectedItemIds() != null
+                ? dto.getSelectedItemIds()
+                : Collections.emptyMap();
+
+        Map<String, String> itemIdByRequest = tradeRequestRepo.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(TradeRequest::getRequestId, TradeRequest::getItemId));
+        Set<String> ownedItemIds = itemIdByRequest.isEmpty()
+                ? Collections.emptySet()
+                : new HashSet<>(itemRepo.lockOwnedById(user.getUserId(), new HashSet<>(itemIdByRequest.values())));
+        List<String> ownedRequestIds = itemIdByRequest.entrySet().stream()
+                .filter(e -> ownedItemIds.contains(e.getValue()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        Map<String, TradeRequest> locked = ownedRequestIds.isEmpty()
+                ? Collections.emptyMap()
+                : tradeRequestRepo.findAllByIdForUpdate(ownedRequestIds).stream()
+                        .collect(Collectors.toMap(TradeRequest::getRequestId, r -> r));
 
-        // Get receiver info from the requested item's owner
-        User receiver = null;
-        String receiverUserId = "";
-        String receiverFullName = "";
-        String receiverEmail = "";
-        String receiverPhone = "";
-        String receiverAddress = "";
-        if (requestedItem != null) {
-            receiver = userRepo.findById(requestedItem.getOwnerId()).orElse(null);
-            if (receiver != null) {
-                receiverUserId = receiver.getUserId();
-                receiverFullName = receiver.getFullName();
-                receiverEmail = receiver.getEmail();
-                receiverPhone = receiver.getPhone();
-                receiverAddress = receiver.getAddress();
+        Map<String, BulkTradeDecisionResult> results = new LinkedHashMap<>();
+        List<TradeRequest> winners = new ArrayList<>();
+        Set<String> acceptedItemIds = new HashSet<>();
+        for (String id : requestIds) {
+            TradeRequest req = locked.get(id);
+            if (!itemIdByRequest.containsKey(id)) {
+                results.put(id, failed(id, "Request not found"));
+            } else if (req == null) {
+                results.put(id, failed(id, "Request is not on one of your items"));
+            } else if (!"PENDING".equals(req.getStatus())) {
+                results.put(id, failed(id, "Request is not pending"));
+            } else if ("APPROVE".equals(decision) && !acceptedItemIds.add(req.getItemId())) {
+                results.put(id, failed(id, "Another offer on this item is accepted in this batch"));
+            } else {
+                winners.add(req);
             }
         }
 
-        // Offered item details
-        Item offeredItem = null;
-        String offeredItemTitle = null;
-        String offeredItemDescription = null;
-        Double offeredItemPrice = null;
-        List<String> offeredItemImages = Collections.emptyList();
-        if ("ITEM".equals(req.getTradeType()) && req.getReceiverSelectedItemId() != null) {
-            offeredItem = itemRepo.findById(req.getReceiverSelectedItemId()).orElse(null);
-            if (offeredItem != null) {
-                offeredItemTitle = offeredItem.getTitle();
-                offeredItemDescription = offeredItem.getDescription();
-                offeredItemPrice = offeredItem.getPrice();
-                offeredItemImages = mapImagesToPaths(offeredItem.getImages());
+        List<TradeRequest> closedOut = new ArrayList<>();
+        if (winners.isEmpty()) {
+            // nothing to transition
+        } else if ("REJECT".equals(decision)) {
+            tradeRequestRepo.rejectAllPending(ids(winners));
+        } else {
+            // One UPDATE for all winners; the selected item is set per request with a CASE
+            Map<String, String> accepts = new HashMap<>();
+            for (TradeRequest req : winners) {
+                accepts.put(req.getRequestId(), selectedItemIds.get(req.getRequestId()));
+            }
+            tradeRequestRepo.acceptAllPending(accepts);
+            // Winners are ACCEPTED now, so whatever is still pending on their items gets closed out
+            closedOut = tradeRequestRepo.findPendingOnItemsForUpdate(acceptedItemIds);
+            if (!closedOut.isEmpty()) {
+                tradeRequestRepo.rejectAllPending(ids(closedOut));
             }
         }
 
-        return TradeRequestDetailedDTO.builder()
-                .requestId(req.getRequestId())
-                .status(req.getStatus())
-                .moneyOffer(req.getMoneyOffer())
-                .offeredByUserId(req.getOfferedBy())
-                .offeredByUserName(offeredByName)
-                .tradeType(req.getTradeType())
-                .requestedItemId(req.getItemId())
-                .requestedItemTitle(requestedTitle)
-                .requestedItemDescription(requestedDescription)
-                .requestedItemPrice(requestedPrice)
-                .requestedItemImages(requestedImages)
-                .offeredItemId(req.getReceiverSelectedItemId())
-                .offeredItemTitle(offeredItemTitle)
-                .offeredItemDescription(offeredItemDescription)
-                .offeredItemPrice(offeredItemPrice)
-                .offeredItemImages(offeredItemImages)
-                // Set contact information
-                .senderEmail(senderEmail)
-                .senderPhone(senderPhone)
-                .senderAddress(senderAddress)
-                .receiverUserId(receiverUserId)
-                .receiverFullName(receiverFullName)
-                .receiverEmail(receiverEmail)
-                .receiverPhone(receiverPhone)
-                .receiverAddress(receiverAddress)
+        Set<String> senderIds = new HashSet<>();
+        winners.forEach(r -> senderIds.add(r.getOfferedBy()));
+        closedOut.forEach(r -> senderIds.add(r.getOfferedBy()));
+        Map<String, User> senders = senderIds.isEmpty()
+                ? Collections.emptyMap()
+                : userRepo.findAllById(senderIds).stream().collect(Collectors.toMap(User::getUserId, u -> u));
+
+        String newStatus = "APPROVE".equals(decision) ? "ACCEPTED" : "REJECTED";
+        List<NotificationDTO> notifications = new ArrayList<>();
+        for (TradeRequest req : winners) {
+            notifications.add("ACCEPTED".equals(newStatus)
+                    ? acceptedNotification(req, senders)
+                    : rejectedNotification(req, senders));
+            results.put(req.getRequestId(), BulkTradeDecisionResult.builder()
+                    .requestId(req.getRequestId())
+                    .success(true)
+                    .status(newStatus)
+                    .build());
+        }
+        closedOut.forEach(r -> notifications.add(rejectedNotification(r, senders)));
+        notificationService.createNotifications(notifications);
+
+        return requestIds.stream().map(results::get).collect(Collectors.toList());
+    }
+
+    private BulkTradeDecisionResult failed(String requestId, String error) {
+        return BulkTradeDecisionResult.builder()
+                .requestId(requestId)
+                .success(false)
+                .error(error)
                 .build();
     }
 
+    private List<String> ids(List<TradeRequest> requests) {
+        return requests.stream().map(TradeRequest::getRequestId).collect(Collectors.toList());
+    }
 
+    private NotificationDTO acceptedNotification(TradeRequest req, Map<String, User> senders) {
+        return new NotificationDTO(req.getOfferedBy(),
+                senderName(senders.get(req.getOfferedBy())) + ", your trade request has been accepted!");
+    }
 
-    // Map images to URLs.
-    private List<String> mapImagesToPaths(List<ItemImage> images) {
-        if (images == null) return Collections.emptyList();
-        return images.stream()
-                .map(img -> {
-                    String fileName = img.getImagePath().replace("Assets/", "");
-                    return "http://10.0.2.2:8080/api/items/image/" + fileName;
-                })
-                .collect(Collectors.toList());
+    private NotificationDTO rejectedNotification(TradeRequest req, Map<String, User> senders) {
+        return new NotificationDTO(req.getOfferedBy(),
+                senderName(senders.get(req.getOfferedBy())) + ", your trade request has been rejected.");
     }
 
-    // 6) Return items by owner.
-    public List<ItemResponse> getItemsByOwner(String userId) {
-        List<Item> items = itemRepo.findByOwnerId(userId);
-        return items.stream().map(this::toItemResponse).collect(Collectors.toList());
-    }
-
-    private ItemResponse toItemResponse(Item item) {
-        List<String> imagePaths = item.getImages().stream()
-                .map(ItemImage::getImagePath)
-                .map(path -> {
-                    String fileName = path.replace("Assets/", "");
-                    return "http://10.0.2.2:8080/api/items/image/" + fileName;
-                })
-                .collect(Collectors.toList());
+    // Locks the item the request is on, if the caller owns it; same check and lock order as bulkDecide
+    private void lockOwnedItem(String requestId, Authentication auth) {
+        User user = (User) auth.getPrincipal();
+        String itemId = tradeRequestRepo.findItemIdByRequestId(requestId)
+                .orElseThrow(() -> new RuntimeException("Request not found"));
+        if (itemRepo.lockOwnedById(user.getUserId(), List.of(itemId)).isEmpty()) {
+            throw new RuntimeException("Request is not on one of your items");
+        }
+    }
 
-        return ItemResponse.builder()
-                .itemId(item.getItemId())
-                .title(item.getTitle())
-                .description(item.getDescription())
-                .price(item.getPrice())
-                .categoryId(item.getCategoryId())
-                .images(imagePaths)
-                .status(item.getStatus())
-                .build();
+    // A failed compare-and-set means the request is either unknown or already decided.
+    private RuntimeException notPendingOrMissing(String requestId) {
+        return tradeRequestRepo.existsById(requestId)
+                ? new RuntimeException("Request is not pending")
+                : new RuntimeException("Request not found");
+    }
+
+    private String senderName(User sender) {
+        return (sender != null) ? sender.getFullName() : "Sender";
+    }
+
+    // 5) Get detailed incoming requests for items the current user owns.
+    // Optionally, you can allow filtering by status (e.g. "PENDING", "ACCEPTED", "REJECTED")
+    public CursorPage<TradeRequestDetailedDTO> getIncomingRequestsDetailed(Authentication auth, String status,
+                                                                           String cursor, Integer limit) {
+        User me = (User) auth.getPrincipal();
+        CursorPage<TradeRequest> page = findIncomingPage(me.getUserId(), status, cursor, limit);
+        return new CursorPage<>(hydrator.toDetailedDTOs(page.getItems()), page.getNextCursor());
+    }
+
+    // 5b) Stream every detailed incoming request, newest first, one hydrated chunk at a time.
+    // Open-in-view keeps one persistence context for the whole response, so it is cleared after
+    // each chunk; otherwise every request, item and image loaded so far would stay managed and
+    // heap would grow with the size of the inbox.
+    public void streamIncomingRequestsDetailed(String ownerId, String status,
+                                               Consumer<List<TradeRequestDetailedDTO>> sink) {
+        String normalized = normalizeStatus(status);
+        PageCursor after = null;
+        List<TradeRequest> rows;
+        do {
+            rows = tradeRequestRepo.findIncomingPage(
+                    ownerId,
+                    normalized,
+                    after != null ? after.timestamp() : null,
+                    after != null ? after.getId() : null,
+                    PageRequest.of(0, STREAM_CHUNK)
+            );
+            if (!rows.isEmpty()) {
+                sink.accept(hydrator.toDetailedDTOs(rows));
+                TradeRequest last = rows.get(rows.size() - 1);
+                after = PageCursor.of(last.getCreatedAt(), last.getRequestId());
+                entityManager.clear();
+            }
+        } while (rows.size() == STREAM_CHUNK);
+    }
+
+    // 7) Get detailed requests the current user has sent, newest first.
+    public CursorPage<TradeRequestDetailedDTO> getOutgoingRequestsDetailed(Authentication auth, String status,
+                                                                           String cursor, Integer limit) {
+        User me = (User) auth.getPrincipal();
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = PageCursor.clampLimit(limit);
+        List<TradeRequest> rows = tradeRequestRepo.findOutgoingPage(
+                me.getUserId(),
+                normalizeStatus(status),
+                after != null ? after.timestamp() : null,
+                after != null ? after.getId() : null,
+                PageRequest.of(0, pageSize + 1)
+        );
+        CursorPage<TradeRequest> page =
+                CursorPage.of(rows, pageSize, r -> PageCursor.of(r.getCreatedAt(), r.getRequestId()));
+        return new CursorPage<>(hydrator.toDetailedDTOs(page.getItems()), page.getNextCursor());
+    }
+
+    private CursorPage<TradeRequest> findIncomingPage(String ownerId, String status, String cursor, Integer limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = PageCursor.clampLimit(limit);
+        List<TradeRequest> rows = tradeRequestRepo.findIncomingPage(
+                ownerId,
+                normalizeStatus(status),
+                after != null ? after.timestamp() : null,
+                after != null ? after.getId() : null,
+                PageRequest.of(0, pageSize + 1)
+        );
+        return CursorPage.of(rows, pageSize, r -> PageCursor.of(r.getCreatedAt(), r.getRequestId()));
+    }
+
+    private String normalizeStatus(String status) {
+        return (status != null && !status.isBlank()) ? status.trim().toUpperCase() : null;
+    }
+
+    // 6) Return items by owner.
+    public List<ItemSummaryResponse> getItemsByOwner(String userId) {
+        return summaryAssembler.toSummaries(itemRepo.findListRowsByOwnerId(userId), false);
     }
 }
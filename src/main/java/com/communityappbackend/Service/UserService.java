@@ -5,40 +5,102 @@ import com.communityappbackend.DTO.UpdateUserProfileRequestDTO;
 import com.communityappbackend.Exception.EmailAlreadyExistsException;
 import com.communityappbackend.Model.User;
 import com.communityappbackend.Repository.UserRepository;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import com.communityappbackend.Security.PasswordHasher;
+import com.communityappbackend.Security.PrincipalCache;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final TransactionTemplate transactionTemplate;
+    private final OwnerSummaryCache ownerSummaryCache;
+    private final ItemLocationIndex locationIndex;
+    private final ItemDetailCache itemDetailCache;
+    private final ContentVersions contentVersions;
+    private final PrincipalCache principalCache;
+    // Boot's shared task executor (also runs MVC async work); database work that follows a
+    // BCrypt step continues here so the CPU-sized BCrypt pool never waits on I/O
+    private final Executor taskExecutor;
 
     public UserService(UserRepository userRepository,
-                       BCryptPasswordEncoder passwordEncoder) {
+                       PasswordHasher passwordHasher,
+                       TransactionTemplate transactionTemplate,
+                       OwnerSummaryCache ownerSummaryCache,
+                       ItemLocationIndex locationIndex,
+                       ItemDetailCache itemDetailCache,
+                       ContentVersions contentVersions,
+                       PrincipalCache principalCache,
+                       @Qualifier("applicationTaskExecutor") Executor taskExecutor) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
+        this.transactionTemplate = transactionTemplate;
+        this.ownerSummaryCache = ownerSummaryCache;
+        this.locationIndex = locationIndex;
+        this.itemDetailCache = itemDetailCache;
+        this.contentVersions = contentVersions;
+        this.principalCache = principalCache;
+        this.taskExecutor = taskExecutor;
     }
 
-    public User signUp(SignUpRequest request) {
+    // Hashing runs on the bounded BCrypt pool; the user is saved on the task executor once the hash is ready.
+    // The returned future completes on the task executor, so callers' continuations run there too.
+    public CompletableFuture<User> signUp(SignUpRequest request) {
         // Check if email is taken
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new EmailAlreadyExistsException("Email is already in use");
         }
 
-        // Create a new user
-        User user = User.builder()
-                .fullName(request.getFullName())
-                .email(request.getEmail())
-                .phone(request.getPhone())
-                .address(request.getAddress())
-                .city(request.getCity())
-                .province(request.getProvince())
-                .passwordHash(passwordEncoder.encode(request.getPassword())) // BCrypt
-                .isVerified(false)
-                .build();
-
-        return userRepository.save(user);
+        return passwordHasher.hash(request.getPassword()).thenApplyAsync(passwordHash -> {
+            // Create a new user
+            User user = User.builder()
+                    .fullName(request.getFullName())
+                    .email(request.getEmail())
+                    .phone(request.getPhone())
+                    .address(request.getAddress())
+                    .city(request.getCity())
+                    .province(request.getProvince())
+                    .passwordHash(passwordHash) // BCrypt
+                    .isVerified(false)
+                    .build();
+
+            return userRepository.save(user);
+        }, taskExecutor);
+    }
+
+    // Checks the password on the BCrypt pool; completes (on the task executor) with the user,
+    // or fails with BadCredentialsException.
+    public CompletableFuture<User> authenticate(String email, String rawPassword) {
+        User user = userRepository.findByEmail(email);
+        if (user == null) {
+            throw new BadCredentialsException("Invalid email or password");
+        }
+        String storedHash = user.getPasswordHash();
+
+        return passwordHasher.matches(rawPassword, storedHash).thenApplyAsync(matches -> {
+            if (!matches) {
+                throw new BadCredentialsException("Invalid email or password");
+            }
+            if (passwordHasher.needsRehash(storedHash)) {
+                upgradePasswordHash(user.getUserId(), storedHash, rawPassword);
+            }
+            return user;
+        }, taskExecutor);
+    }
+
+    // Best effort: re-hash at the current cost in the background; skipped if the pool is busy.
+    private void upgradePasswordHash(String userId, String oldHash, String rawPassword) {
+        passwordHasher.hash(rawPassword)
+                .thenAcceptAsync(newHash -> transactionTemplate.executeWithoutResult(
+                        status -> userRepository.replacePasswordHash(userId, oldHash, newHash)), taskExecutor)
+                .exceptionally(e -> null);
     }
 
     public User findByEmail(String email) {
@@ -73,7 +135,13 @@ public class UserService {
             user.setProvince(req.getProvince());
         }
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        principalCache.bumpVersion(userId);
+        ownerSummaryCache.invalidate(userId);
+        itemDetailCache.invalidateOwner(userId);
+        locationIndex.ownerMoved(userId, saved.getCity(), saved.getProvince());
+        contentVersions.bumpCatalog();
+        return saved;
     }
 
 }
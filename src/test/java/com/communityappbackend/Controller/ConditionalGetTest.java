@@ -0,0 +1,62 @@
+package com.communityappbackend.Controller;
+
+import com.communityappbackend.Service.ContentVersions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConditionalGetTest {
+
+    private final ContentVersions versions = new ContentVersions();
+
+    @Test
+    void matchingETagIsNotModified() {
+        String etag = versions.categoriesETag();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(ConditionalGet.notModified(request(etag, response), etag));
+        assertEquals(304, response.getStatus());
+        assertEquals(etag, response.getHeader(HttpHeaders.ETAG));
+        assertEquals("no-cache, private", response.getHeader(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    void bumpInvalidatesTheTagEvenWithinTheSameSecond() {
+        String before = versions.itemETag();
+        versions.bumpCatalog();
+        String after = versions.itemETag();
+
+        assertNotEquals(before, after);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(ConditionalGet.notModified(request(before, response), after));
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void ifModifiedSinceAloneNeverYieldsA304() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/categories");
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, System.currentTimeMillis() + 60_000);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(ConditionalGet.notModified(new ServletWebRequest(request, response), versions.categoriesETag()));
+        assertNull(response.getHeader(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    void tagsOfAnotherBootOrInstanceDoNotMatch() {
+        ContentVersions other = new ContentVersions();
+
+        assertNotEquals(other.itemETag(), versions.itemETag());
+        assertNotEquals(other.categoriesETag(), versions.categoriesETag());
+    }
+
+    private static ServletWebRequest request(String ifNoneMatch, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/categories");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        return new ServletWebRequest(request, response);
+    }
+}
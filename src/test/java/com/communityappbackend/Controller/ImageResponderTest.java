@@ -0,0 +1,165 @@
+package com.communityappbackend.Controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageResponderTest {
+
+    private static final String KEY = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08.jpg";
+    private static final String ETAG = "\"" + KEY + "\"";
+    private static final byte[] BODY = "0123456789".getBytes(StandardCharsets.US_ASCII);
+
+    private final ImageResponder responder = new ImageResponder();
+
+    @Test
+    void parsesSingleRanges() {
+        assertArrayEquals(new long[]{0, 4}, ImageResponder.parseRange("bytes=0-4", 10));
+        assertArrayEquals(new long[]{5, 9}, ImageResponder.parseRange("bytes=5-", 10));
+        assertArrayEquals(new long[]{7, 9}, ImageResponder.parseRange("bytes=-3", 10));
+        assertArrayEquals(new long[]{0, 9}, ImageResponder.parseRange("bytes=-50", 10));
+        assertArrayEquals(new long[]{8, 9}, ImageResponder.parseRange("bytes=8-500", 10));
+    }
+
+    @Test
+    void ignoresMalformedAndMultiRanges() {
+        for (String header : new String[]{"items=0-4", "bytes=0-1,4-5", "bytes=abc", "bytes=x-y", "bytes=5-2"}) {
+            assertEquals(0, ImageResponder.parseRange(header, 10).length, header);
+        }
+    }
+
+    @Test
+    void reportsUnsatisfiableRanges() {
+        assertNull(ImageResponder.parseRange("bytes=10-", 10));
+        assertNull(ImageResponder.parseRange("bytes=12-11", 10));
+        assertNull(ImageResponder.parseRange("bytes=-0", 10));
+    }
+
+    @Test
+    void servesTheWholeBodyWithImmutableCaching() throws Exception {
+        MockHttpServletResponse response = write(inMemory(), true, request());
+
+        assertEquals(200, response.getStatus());
+        assertEquals(ETAG, response.getHeader(HttpHeaders.ETAG));
+        assertEquals("image/jpeg", response.getContentType());
+        assertTrue(response.getHeader(HttpHeaders.CACHE_CONTROL).contains("immutable"));
+        assertArrayEquals(BODY, response.getContentAsByteArray());
+    }
+
+    @Test
+    void fallbackResponsesAreRevalidated() throws Exception {
+        MockHttpServletResponse response = write(inMemory(), false, request());
+
+        assertEquals("no-cache, public", response.getHeader(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    void matchingIfNoneMatchIsNotModified() throws Exception {
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + ETAG);
+
+        MockHttpServletResponse response = write(inMemory(), true, request);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void rangeFromMemoryAndFromFile(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve(KEY);
+        Files.write(file, BODY);
+
+        for (Resource resource : new Resource[]{inMemory(), new FileSystemResource(file)}) {
+            MockHttpServletRequest request = request();
+            request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+
+            MockHttpServletResponse response = write(resource, true, request);
+
+            assertEquals(206, response.getStatus());
+            assertEquals("bytes 2-5/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+            assertEquals(4, response.getContentLengthLong());
+            assertEquals("2345", response.getContentAsString());
+        }
+    }
+
+    @Test
+    void fileBodiesUseSendfileWhenTheConnectorOffersIt(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve(KEY);
+        Files.write(file, BODY);
+        MockHttpServletRequest request = request();
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=-4");
+
+        MockHttpServletResponse response = write(new FileSystemResource(file), true, request);
+
+        assertEquals(file.toFile().getAbsolutePath(), request.getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(6L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(10L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void staleIfRangeGetsTheFullBody() throws Exception {
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-1");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"previous-version\"");
+
+        MockHttpServletResponse response = write(inMemory(), true, request);
+
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(BODY, response.getContentAsByteArray());
+    }
+
+    @Test
+    void unsatisfiableRangeIs416() throws Exception {
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.RANGE, "bytes=100-");
+
+        MockHttpServletResponse response = write(inMemory(), true, request);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void headSendsHeadersOnly() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("HEAD", "/api/items/image/" + KEY);
+
+        MockHttpServletResponse response = write(inMemory(), true, request);
+
+        assertEquals(10, response.getContentLengthLong());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    private MockHttpServletResponse write(Resource resource, boolean immutable, MockHttpServletRequest request)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        responder.write(resource, immutable, request, response);
+        return response;
+    }
+
+    private static MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/api/items/image/" + KEY);
+    }
+
+    private static Resource inMemory() {
+        return new ByteArrayResource(BODY) {
+            @Override
+            public String getFilename() {
+                return KEY;
+            }
+        };
+    }
+}
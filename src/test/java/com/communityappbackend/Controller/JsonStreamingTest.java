@@ -0,0 +1,71 @@
+package com.communityappbackend.Controller;
+
+import com.communityappbackend.Config.StreamingConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonStreamingTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @AfterEach
+    void clearRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void writesChunksAsOneJsonArray() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = JsonStreaming.<Map<String, Integer>>stream(
+                objectMapper, MediaType.APPLICATION_JSON_VALUE, sink -> {
+                    sink.accept(List.of(Map.of("n", 1), Map.of("n", 2)));
+                    sink.accept(List.of(Map.of("n", 3)));
+                });
+
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("[{\"n\":1},{\"n\":2},{\"n\":3}]", write(response));
+    }
+
+    @Test
+    void writesOneObjectPerLineForNdjson() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = JsonStreaming.<Map<String, Integer>>stream(
+                objectMapper, "application/x-ndjson", sink -> sink.accept(List.of(Map.of("n", 1), Map.of("n", 2))));
+
+        assertEquals(JsonStreaming.NDJSON, response.getHeaders().getContentType());
+        assertEquals("{\"n\":1}\n{\"n\":2}\n", write(response));
+    }
+
+    @Test
+    void emptyResultIsAnEmptyArray() throws Exception {
+        assertEquals("[]", write(JsonStreaming.stream(objectMapper, null, sink -> { })));
+    }
+
+    @Test
+    void marksTheRequestForTheStreamingTimeout() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        JsonStreaming.stream(objectMapper, null, sink -> { });
+
+        assertEquals(Boolean.TRUE, request.getAttribute(StreamingConfig.STREAMING_REQUEST));
+    }
+
+    private static String write(ResponseEntity<StreamingResponseBody> response) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,71 @@
+package com.communityappbackend.DTO;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCursorTest {
+
+    @Test
+    void timestampCursorRoundTrips() {
+        Timestamp createdAt = new Timestamp(1_700_000_000_123L);
+        PageCursor decoded = PageCursor.decode(PageCursor.of(createdAt, "7f3c-id").encode());
+
+        assertEquals(createdAt, decoded.timestamp());
+        assertEquals("7f3c-id", decoded.getId());
+    }
+
+    @Test
+    void priceCursorRoundTrips() {
+        PageCursor decoded = PageCursor.decode(PageCursor.ofPrice(1499.5, "item").encode());
+
+        assertEquals(1499.5, decoded.price());
+        assertEquals("item", decoded.getId());
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String token = PageCursor.of(new Timestamp(Long.MAX_VALUE), "id/with+chars?").encode();
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+    }
+
+    @Test
+    void missingCursorMeansFirstPage() {
+        assertNull(PageCursor.decode(null));
+        assertNull(PageCursor.decode(" "));
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        assertInvalid("not base64 !!");
+        assertInvalid(encode("no-separator"));
+        assertInvalid(encode("|id-only"));
+        assertInvalid(encode("123|"));
+
+        PageCursor badKey = PageCursor.decode(encode("abc|id"));
+        RuntimeException e = assertThrows(RuntimeException.class, badKey::timestamp);
+        assertEquals("Invalid cursor", e.getMessage());
+    }
+
+    @Test
+    void limitIsDefaultedAndCapped() {
+        assertEquals(PageCursor.DEFAULT_LIMIT, PageCursor.clampLimit(null));
+        assertEquals(PageCursor.DEFAULT_LIMIT, PageCursor.clampLimit(0));
+        assertEquals(PageCursor.DEFAULT_LIMIT, PageCursor.clampLimit(-5));
+        assertEquals(50, PageCursor.clampLimit(50));
+        assertEquals(PageCursor.MAX_LIMIT, PageCursor.clampLimit(10_000));
+    }
+
+    private static void assertInvalid(String cursor) {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> PageCursor.decode(cursor));
+        assertEquals("Invalid cursor", e.getMessage());
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
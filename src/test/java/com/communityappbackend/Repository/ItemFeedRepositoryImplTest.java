@@ -0,0 +1,194 @@
+package com.communityappbackend.Repository;
+
+import com.communityappbackend.DTO.PageCursor;
+import com.communityappbackend.Model.Item;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks the WHERE/ORDER BY the feed builds for each sort against a mocked Criteria API:
+ * the keyset condition must be the strict "after the cursor row" in the sort's own order.
+ */
+@SuppressWarnings("unchecked")
+class ItemFeedRepositoryImplTest {
+
+    private final EntityManager em = mock(EntityManager.class);
+    private final CriteriaBuilder cb = mock(CriteriaBuilder.class);
+    private final CriteriaQuery<ItemListRow> cq = mock(CriteriaQuery.class, RETURNS_SELF);
+    private final Root<Item> root = mock(Root.class);
+    private final TypedQuery<ItemListRow> typedQuery = mock(TypedQuery.class, RETURNS_SELF);
+    private final Path<Object> createdAt = mock(Path.class, "createdAt");
+    private final Path<Object> itemId = mock(Path.class, "itemId");
+    private final Path<Object> price = mock(Path.class, "price");
+    private final Path<Object> status = mock(Path.class, "status");
+    private final Path<Object> ownerId = mock(Path.class, "ownerId");
+    private final Path<Object> categoryId = mock(Path.class, "categoryId");
+
+    private final ItemFeedRepositoryImpl repository = new ItemFeedRepositoryImpl();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(repository, "em", em);
+        when(em.getCriteriaBuilder()).thenReturn(cb);
+        when(cb.createQuery(ItemListRow.class)).thenReturn(cq);
+        when(cq.from(Item.class)).thenReturn(root);
+        when(em.createQuery(cq)).thenReturn(typedQuery);
+        when(typedQuery.getResultList()).thenReturn(List.of());
+        doReturn(createdAt).when(root).get("createdAt");
+        doReturn(itemId).when(root).get("itemId");
+        doReturn(price).when(root).get("price");
+        doReturn(status).when(root).get("status");
+        doReturn(ownerId).when(root).get("ownerId");
+        doReturn(categoryId).when(root).get("categoryId");
+        doReturn(mock(Path.class)).when(root).get("title");
+    }
+
+    @Test
+    void firstNewestPageHasNoKeysetConditionAndFetchesTheLookAheadRow() {
+        repository.findFeedPage(ItemFeedQuery.builder().excludeOwnerId("me").limit(21).build());
+
+        verify(cb).equal(status, "ACTIVE");
+        verify(cb).notEqual(ownerId, "me");
+        verify(cb, never()).equal(eqPath(categoryId), any(Object.class));
+        verify(cb, never()).lessThan(any(Expression.class), any(Comparable.class));
+        verify(cb, never()).or(any(Expression.class), any(Expression.class));
+        verify(cb).desc(createdAt);
+        verify(cb).desc(itemId);
+        verify(typedQuery).setMaxResults(21);
+    }
+
+    @Test
+    void newestPageResumesStrictlyAfterTheCursorRow() {
+        Timestamp ts = new Timestamp(1_700_000_000_000L);
+        Predicate before = mock(Predicate.class);
+        Predicate sameTime = mock(Predicate.class);
+        Predicate smallerId = mock(Predicate.class);
+        Predicate tie = mock(Predicate.class);
+        doReturn(before).when(cb).lessThan(createdAtExpr(), eq(ts));
+        doReturn(sameTime).when(cb).equal(createdAt, ts);
+        doReturn(smallerId).when(cb).lessThan(itemIdExpr(), eq("item-5"));
+        doReturn(tie).when(cb).and(sameTime, smallerId);
+
+        repository.findFeedPage(ItemFeedQuery.builder()
+                .after(PageCursor.of(ts, "item-5"))
+                .limit(21)
+                .build());
+
+        // created_at < ts OR (created_at = ts AND item_id < id): rows sharing the timestamp are not skipped
+        verify(cb).or(before, tie);
+        verify(cb, never()).lessThanOrEqualTo(any(Expression.class), any(Comparable.class));
+        verify(cb, never()).isNotNull(any());
+    }
+
+    @Test
+    void categoryFilterIsOnlyAddedWhenSet() {
+        repository.findFeedPage(ItemFeedQuery.builder().categoryId(7L).limit(5).build());
+
+        verify(cb).equal(categoryId, 7L);
+        verify(cb, never()).notEqual(eqPath(ownerId), any(Object.class));
+    }
+
+    @Test
+    void priceAscendingSkipsUnpricedItemsAndResumesAfterTheCursorRow() {
+        Predicate higher = mock(Predicate.class);
+        Predicate samePrice = mock(Predicate.class);
+        Predicate largerId = mock(Predicate.class);
+        Predicate tie = mock(Predicate.class);
+        doReturn(higher).when(cb).greaterThan(priceExpr(), eq(1500.0));
+        doReturn(samePrice).when(cb).equal(price, 1500.0);
+        doReturn(largerId).when(cb).greaterThan(itemIdExpr(), eq("item-5"));
+        doReturn(tie).when(cb).and(samePrice, largerId);
+
+        repository.findFeedPage(ItemFeedQuery.builder()
+                .sort(FeedSort.PRICE_ASC)
+                .after(PageCursor.ofPrice(1500.0, "item-5"))
+                .limit(21)
+                .build());
+
+        // NULL prices would compare as unknown and make the keyset skip or repeat rows
+        verify(cb).isNotNull(price);
+        verify(cb).or(higher, tie);
+        verify(cb).asc(price);
+        verify(cb).asc(itemId);
+        verify(cb, never()).desc(any());
+    }
+
+    @Test
+    void priceDescendingSkipsUnpricedItemsAndResumesAfterTheCursorRow() {
+        Predicate lower = mock(Predicate.class);
+        Predicate samePrice = mock(Predicate.class);
+        Predicate smallerId = mock(Predicate.class);
+        Predicate tie = mock(Predicate.class);
+        doReturn(lower).when(cb).lessThan(priceExpr(), eq(1500.0));
+        doReturn(samePrice).when(cb).equal(price, 1500.0);
+        doReturn(smallerId).when(cb).lessThan(itemIdExpr(), eq("item-5"));
+        doReturn(tie).when(cb).and(samePrice, smallerId);
+
+        repository.findFeedPage(ItemFeedQuery.builder()
+                .sort(FeedSort.PRICE_DESC)
+                .after(PageCursor.ofPrice(1500.0, "item-5"))
+                .limit(21)
+                .build());
+
+        verify(cb).isNotNull(price);
+        verify(cb).or(lower, tie);
+        verify(cb).desc(price);
+        verify(cb).desc(itemId);
+        verify(cb, never()).asc(any());
+    }
+
+    @Test
+    void firstPriceSortedPageStillSkipsUnpricedItems() {
+        repository.findFeedPage(ItemFeedQuery.builder().sort(FeedSort.PRICE_ASC).limit(21).build());
+
+        verify(cb).isNotNull(price);
+        verify(cb, never()).or(any(Expression.class), any(Expression.class));
+    }
+
+    @Test
+    void newestSortKeepsUnpricedItems() {
+        repository.findFeedPage(ItemFeedQuery.builder().limit(21).build());
+
+        verify(cb, never()).isNotNull(any());
+    }
+
+    @Test
+    void priceRangeIsInclusiveAndOnlyAddedWhenSet() {
+        repository.findFeedPage(ItemFeedQuery.builder().minPrice(100.0).maxPrice(5000.0).limit(21).build());
+
+        verify(cb).greaterThanOrEqualTo(priceExpr(), eq(100.0));
+        verify(cb).lessThanOrEqualTo(priceExpr(), eq(5000.0));
+
+        clearInvocations(cb);
+        repository.findFeedPage(ItemFeedQuery.builder().maxPrice(5000.0).limit(21).build());
+
+        verify(cb, never()).greaterThanOrEqualTo(any(Expression.class), any(Comparable.class));
+        verify(cb).lessThanOrEqualTo(priceExpr(), eq(5000.0));
+    }
+
+    private Expression<Object> eqPath(Path<Object> path) {
+        return same(path);
+    }
+
+    private Expression<Timestamp> createdAtExpr() {
+        return (Expression<Timestamp>) (Expression<?>) same(createdAt);
+    }
+
+    private Expression<Double> priceExpr() {
+        return (Expression<Double>) (Expression<?>) same(price);
+    }
+
+    private Expression<String> itemIdExpr() {
+        return (Expression<String>) (Expression<?>) same(itemId);
+    }
+}
@@ -0,0 +1,116 @@
+package com.communityappbackend.Security;
+
+import com.communityappbackend.Repository.RevokedTokenRepository;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class JwtVerifierTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef-test-secret";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RevokedTokens revokedTokens = new RevokedTokens(mock(RevokedTokenRepository.class));
+    private final JwtVerifier verifier = new JwtVerifier(SECRET, 100, meterRegistry, revokedTokens);
+
+    private static String token(String jti, String familyId, Instant expiresAt) {
+        return Jwts.builder()
+                .setId(jti)
+                .setSubject("u1")
+                .claim(JwtUtils.FAMILY_CLAIM, familyId)
+                .setIssuedAt(new Date())
+                .setExpiration(Date.from(expiresAt))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private double cacheHits() {
+        return meterRegistry.get("cache.gets").tag("cache", "jwtVerified").tag("result", "hit")
+                .functionCounter().count();
+    }
+
+    @Test
+    void validTokenIsParsedOnceAndThenServedFromTheCache() {
+        String token = token("jti-1", "fam-1", Instant.now().plus(Duration.ofMinutes(5)));
+
+        VerifiedToken first = verifier.verify(token);
+        VerifiedToken second = verifier.verify(token);
+
+        assertNotNull(first);
+        assertEquals("u1", first.userId());
+        assertEquals("jti-1", first.tokenId());
+        assertEquals("fam-1", first.familyId());
+        assertSame(first, second);
+        assertEquals(1, cacheHits());
+    }
+
+    @Test
+    void expiredTokenIsRejectedAfterACachedHit() throws Exception {
+        String token = token("jti-1", "fam-1", Instant.now().plusMillis(1500));
+        assertNotNull(verifier.verify(token));
+        assertNotNull(verifier.verify(token));
+        assertEquals(1, cacheHits());
+
+        Thread.sleep(1600);
+
+        assertNull(verifier.verify(token));
+    }
+
+    @Test
+    void tamperedTokenIsRejectedAfterTheOriginalWasCached() {
+        String token = token("jti-1", "fam-1", Instant.now().plus(Duration.ofMinutes(5)));
+        assertNotNull(verifier.verify(token));
+        assertNotNull(verifier.verify(token));
+
+        String[] parts = token.split("\\.");
+        String otherPayload = token("jti-1", "fam-1", Instant.now().plus(Duration.ofDays(30))).split("\\.")[1];
+        // First character: all six of its bits are signature bits
+        String badSignature = (parts[2].charAt(0) == 'A' ? 'B' : 'A') + parts[2].substring(1);
+
+        assertNull(verifier.verify(parts[0] + "." + otherPayload + "." + parts[2]));
+        assertNull(verifier.verify(parts[0] + "." + parts[1] + "." + badSignature));
+        assertNull(verifier.verify(parts[0] + "." + parts[1] + "."));
+    }
+
+    @Test
+    void revokedTokenIsRejectedAfterACachedHit() {
+        String token = token("jti-1", "fam-1", Instant.now().plus(Duration.ofMinutes(5)));
+        assertNotNull(verifier.verify(token));
+        assertNotNull(verifier.verify(token));
+
+        revokedTokens.revoke("jti-1", Instant.now().plus(Duration.ofMinutes(5)));
+
+        assertNull(verifier.verify(token));
+    }
+
+    @Test
+    void tokenOfARevokedSignInIsRejectedAfterACachedHit() {
+        String token = token("jti-1", "fam-1", Instant.now().plus(Duration.ofMinutes(5)));
+        assertNotNull(verifier.verify(token));
+
+        revokedTokens.revoke("fam-1", Instant.now().plus(Duration.ofMinutes(15)));
+
+        assertNull(verifier.verify(token));
+    }
+
+    @Test
+    void malformedOrMissingTokensAreRejected() {
+        assertNull(verifier.verify(null));
+        assertNull(verifier.verify(""));
+        assertNull(verifier.verify("not-a-jwt"));
+        String wrongKey = Jwts.builder().setSubject("u1").setExpiration(Date.from(Instant.now().plusSeconds(60)))
+                .signWith(Keys.hmacShaKeyFor("another-secret-another-secret-123456".getBytes()),
+                        SignatureAlgorithm.HS256)
+                .compact();
+        assertNull(verifier.verify(wrongKey));
+    }
+}
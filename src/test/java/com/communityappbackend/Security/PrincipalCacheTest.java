@@ -0,0 +1,105 @@
+package com.communityappbackend.Security;
+
+import com.communityappbackend.Model.User;
+import com.communityappbackend.Repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PrincipalCacheTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PrincipalCache cache =
+            new PrincipalCache(userRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+
+    private static User user(String city) {
+        return User.builder().userId("u1").email("a@b.c").passwordHash("$2a$hash").city(city).build();
+    }
+
+    @Test
+    void repeatedLookupsAreServedFromTheCacheWithoutThePasswordHash() {
+        when(userRepository.findById("u1")).thenReturn(Optional.of(user("Colombo")));
+
+        User first = cache.get("u1");
+        User second = cache.get("u1");
+
+        assertSame(first, second);
+        assertNull(first.getPasswordHash());
+        assertEquals("Colombo", first.getCity());
+        verify(userRepository, times(1)).findById("u1");
+    }
+
+    @Test
+    void unknownUsersAreNotCached() {
+        when(userRepository.findById("u1")).thenReturn(Optional.empty());
+
+        assertNull(cache.get("u1"));
+        assertNull(cache.get("u1"));
+
+        verify(userRepository, times(2)).findById("u1");
+    }
+
+    @Test
+    void profileUpdateEvictsThePrincipal() {
+        when(userRepository.findById("u1"))
+                .thenReturn(Optional.of(user("Colombo")))
+                .thenReturn(Optional.of(user("Galle")));
+        cache.get("u1");
+
+        cache.bumpVersion("u1");
+
+        assertEquals("Galle", cache.get("u1").getCity());
+        verify(userRepository, times(2)).findById("u1");
+    }
+
+    @Test
+    void loadThatStartedBeforeABumpIsNotServedAfterIt() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch bumped = new CountDownLatch(1);
+        when(userRepository.findById("u1"))
+                .thenAnswer(inv -> {
+                    // Reads the row as it was before the profile update commits
+                    loading.countDown();
+                    assertTrue(bumped.await(5, TimeUnit.SECONDS));
+                    return Optional.of(user("Colombo"));
+                })
+                .thenReturn(Optional.of(user("Galle")));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<User> slowLoad = executor.submit(() -> cache.get("u1"));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            cache.bumpVersion("u1");
+            bumped.countDown();
+
+            // The in-flight request still sees what it read, and its stale copy lands in the cache...
+            assertEquals("Colombo", slowLoad.get(5, TimeUnit.SECONDS).getCity());
+            // ...but nobody is served that copy after the bump
+            assertEquals("Galle", cache.get("u1").getCity());
+            assertEquals("Galle", cache.get("u1").getCity());
+            verify(userRepository, times(2)).findById("u1");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void bumpingOneUserLeavesOthersCached() {
+        when(userRepository.findById("u1")).thenReturn(Optional.of(user("Colombo")));
+        when(userRepository.findById("u2")).thenReturn(Optional.of(
+                User.builder().userId("u2").email("d@e.f").build()));
+        cache.get("u1");
+        cache.get("u2");
+
+        cache.bumpVersion("u1");
+        cache.get("u2");
+
+        verify(userRepository, times(1)).findById("u2");
+    }
+}
@@ -0,0 +1,80 @@
+package com.communityappbackend.Security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RateLimitFilterTest {
+
+    // 3 requests per 3 seconds: one token per second, burst of 3
+    private static final long INTERVAL = 1_000_000_000L;
+    private static final long BURST = 3 * INTERVAL;
+
+    @Test
+    void allowsBurstThenRejectsWithTimeUntilNextToken() {
+        AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+        long now = 1_000 * INTERVAL;
+
+        assertEquals(0, RateLimitFilter.acquire(tat, INTERVAL, BURST, now));
+        assertEquals(0, RateLimitFilter.acquire(tat, INTERVAL, BURST, now));
+        assertEquals(0, RateLimitFilter.acquire(tat, INTERVAL, BURST, now));
+        assertEquals(INTERVAL, RateLimitFilter.acquire(tat, INTERVAL, BURST, now));
+        assertEquals(INTERVAL - 250, RateLimitFilter.acquire(tat, INTERVAL, BURST, now + 250));
+    }
+
+    @Test
+    void rejectionDoesNotConsumeAToken() {
+        AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+        long now = 1_000 * INTERVAL;
+        for (int i = 0; i < 3; i++) {
+            RateLimitFilter.acquire(tat, INTERVAL, BURST, now);
+        }
+        long full = tat.get();
+
+        for (int i = 0; i < 10; i++) {
+            RateLimitFilter.acquire(tat, INTERVAL, BURST, now);
+        }
+        assertEquals(full, tat.get());
+        assertEquals(0, RateLimitFilter.acquire(tat, INTERVAL, BURST, now + INTERVAL));
+    }
+
+    @Test
+    void tokensRefillAtTheEmissionInterval() {
+        AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+        long now = 1_000 * INTERVAL;
+        for (int i = 0; i < 3; i++) {
+            RateLimitFilter.acquire(tat, INTERVAL, BURST, now);
+        }
+
+        long later = now + 2 * INTERVAL;
+        assertEquals(0, RateLimitFilter.acquire(tat, INTERVAL, BURST, later));
+        assertEquals(0, RateLimitFilter.acquire(tat, INTERVAL, BURST, later));
+        assertEquals(INTERVAL, RateLimitFilter.acquire(tat, INTERVAL, BURST, later));
+    }
+
+    @Test
+    void idleBucketDoesNotBankMoreThanTheBurst() {
+        AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+        long now = 1_000 * INTERVAL;
+        RateLimitFilter.acquire(tat, INTERVAL, BURST, now);
+
+        long muchLater = now + 100 * INTERVAL;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, RateLimitFilter.acquire(tat, INTERVAL, BURST, muchLater));
+        }
+        assertEquals(INTERVAL, RateLimitFilter.acquire(tat, INTERVAL, BURST, muchLater));
+    }
+
+    @Test
+    void handlesNanoTimeNearZeroAndNegative() {
+        // System.nanoTime() has an arbitrary origin and may be negative
+        AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+        long now = -5 * INTERVAL;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, RateLimitFilter.acquire(tat, INTERVAL, BURST, now));
+        }
+        assertEquals(INTERVAL, RateLimitFilter.acquire(tat, INTERVAL, BURST, now));
+    }
+}
@@ -0,0 +1,62 @@
+package com.communityappbackend.Security;
+
+import com.communityappbackend.Model.RevokedToken;
+import com.communityappbackend.Repository.RevokedTokenRepository;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RevokedTokensTest {
+
+    private final RevokedTokenRepository repo = mock(RevokedTokenRepository.class);
+    private final RevokedTokens revokedTokens = new RevokedTokens(repo);
+
+    private static VerifiedToken token(String jti, String familyId) {
+        return new VerifiedToken("u1", jti, familyId, Instant.now(), Instant.now().plus(Duration.ofMinutes(10)));
+    }
+
+    @Test
+    void revokedJtiIsRejectedAndPersisted() {
+        revokedTokens.revoke("jti-1", Instant.now().plus(Duration.ofMinutes(10)));
+
+        assertTrue(revokedTokens.isRevoked(token("jti-1", null)));
+        assertFalse(revokedTokens.isRevoked(token("jti-2", null)));
+        verify(repo).save(any(RevokedToken.class));
+    }
+
+    @Test
+    void revokedFamilyRejectsEveryTokenOfThatSignIn() {
+        revokedTokens.revoke("family-1", Instant.now().plus(Duration.ofMinutes(15)));
+
+        assertTrue(revokedTokens.isRevoked(token("jti-1", "family-1")));
+        assertTrue(revokedTokens.isRevoked(token("jti-2", "family-1")));
+        assertFalse(revokedTokens.isRevoked(token("jti-3", "family-2")));
+    }
+
+    @Test
+    void alreadyExpiredTokensAreNotStored() {
+        revokedTokens.revoke("jti-1", Instant.now().minusSeconds(1));
+        revokedTokens.revoke(null, Instant.now().plusSeconds(60));
+
+        assertFalse(revokedTokens.isRevoked("jti-1"));
+        verify(repo, never()).save(any());
+    }
+
+    @Test
+    void rebuildLoadsLiveRevocations() {
+        when(repo.findByExpiresAtAfter(any())).thenReturn(List.of(RevokedToken.builder()
+                .jti("jti-1").expiresAt(Timestamp.from(Instant.now().plus(Duration.ofMinutes(5)))).build()));
+
+        revokedTokens.rebuild();
+
+        assertTrue(revokedTokens.isRevoked("jti-1"));
+        verify(repo).deleteExpired(any());
+    }
+}
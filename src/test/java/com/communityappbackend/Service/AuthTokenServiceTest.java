@@ -0,0 +1,138 @@
+package com.communityappbackend.Service;
+
+import com.communityappbackend.DTO.AuthResponse;
+import com.communityappbackend.Exception.InvalidRefreshTokenException;
+import com.communityappbackend.Model.RefreshToken;
+import com.communityappbackend.Repository.RefreshTokenRepository;
+import com.communityappbackend.Repository.RevokedTokenRepository;
+import com.communityappbackend.Security.JwtUtils;
+import com.communityappbackend.Security.RevokedTokens;
+import com.communityappbackend.Security.VerifiedToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class AuthTokenServiceTest {
+
+    private static final String FAMILY = "f0000000-0000-0000-0000-000000000001";
+
+    private final JwtUtils jwtUtils = mock(JwtUtils.class);
+    private final RefreshTokenRepository refreshTokenRepo = mock(RefreshTokenRepository.class);
+    private final RevokedTokenRepository revokedTokenRepo = mock(RevokedTokenRepository.class);
+    private final RevokedTokens revokedTokens = new RevokedTokens(revokedTokenRepo);
+    private final AuthTokenService service = new AuthTokenService(
+            jwtUtils, refreshTokenRepo, revokedTokens, Duration.ofDays(30), Duration.ofMinutes(15).toMillis());
+
+    private RefreshToken stored;
+
+    @BeforeEach
+    void setUp() {
+        when(jwtUtils.generateToken(anyString(), anyString()))
+                .thenAnswer(inv -> "access-for-" + inv.getArgument(1));
+        stored = RefreshToken.builder()
+                .tokenHash("h").userId("u1").familyId(FAMILY)
+                .expiresAt(Timestamp.from(Instant.now().plus(Duration.ofDays(1))))
+                .build();
+        when(refreshTokenRepo.findById(anyString())).thenReturn(Optional.of(stored));
+    }
+
+    @Test
+    void rotationMarksTheTokenUsedAndSavesASuccessorInTheSameFamily() {
+        when(refreshTokenRepo.markUsed(anyString(), any())).thenReturn(1);
+
+        AuthResponse response = service.refresh("old-token");
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepo).save(saved.capture());
+        assertEquals(FAMILY, saved.getValue().getFamilyId());
+        assertEquals("u1", saved.getValue().getUserId());
+        assertNotEquals(saved.getValue().getTokenHash(), response.getRefreshToken());
+        assertEquals(64, saved.getValue().getTokenHash().length());
+        assertNotNull(response.getRefreshToken());
+        assertEquals("access-for-" + FAMILY, response.getToken());
+
+        // The family is locked before the single-use check
+        var order = inOrder(refreshTokenRepo);
+        order.verify(refreshTokenRepo).lockFamily(FAMILY);
+        order.verify(refreshTokenRepo).markUsed(anyString(), any());
+        order.verify(refreshTokenRepo).save(any());
+    }
+
+    @Test
+    void reuseRevokesTheFamilyAndItsAccessTokens() {
+        when(refreshTokenRepo.markUsed(anyString(), any())).thenReturn(0);
+
+        assertThrows(InvalidRefreshTokenException.class, () -> service.refresh("old-token"));
+
+        verify(refreshTokenRepo).revokeFamily(FAMILY);
+        verify(refreshTokenRepo, never()).save(any());
+        VerifiedToken otherAccessToken = new VerifiedToken("u1", "a0000000-0000-0000-0000-000000000002",
+                FAMILY, Instant.now(), Instant.now().plus(Duration.ofMinutes(10)));
+        assertTrue(revokedTokens.isRevoked(otherAccessToken));
+    }
+
+    @Test
+    void revokedFamilyIsRefusedBeforeTheTokenIsMarkedUsed() {
+        when(refreshTokenRepo.lockFamily(FAMILY)).thenReturn(1L);
+
+        assertThrows(InvalidRefreshTokenException.class, () -> service.refresh("old-token"));
+
+        verify(refreshTokenRepo, never()).markUsed(anyString(), any());
+        verify(refreshTokenRepo, never()).save(any());
+    }
+
+    @Test
+    void expiredTokenIsRefusedWithoutRevokingTheFamily() {
+        stored.setExpiresAt(Timestamp.from(Instant.now().minusSeconds(1)));
+        when(refreshTokenRepo.markUsed(anyString(), any())).thenReturn(0);
+
+        assertThrows(InvalidRefreshTokenException.class, () -> service.refresh("old-token"));
+
+        verify(refreshTokenRepo, never()).revokeFamily(anyString());
+    }
+
+    @Test
+    void reuseRevocationIsNotRolledBack() throws Exception {
+        Transactional tx = AuthTokenService.class.getMethod("refresh", String.class)
+                .getAnnotation(Transactional.class);
+
+        assertNotNull(tx);
+        assertTrue(List.of(tx.noRollbackFor()).contains(InvalidRefreshTokenException.class));
+    }
+
+    @Test
+    void logoutRevokesTheAccessTokenAndTheSignIn() {
+        VerifiedToken accessToken = new VerifiedToken("u1", "a0000000-0000-0000-0000-000000000003",
+                FAMILY, Instant.now(), Instant.now().plus(Duration.ofMinutes(10)));
+
+        service.logout(accessToken, "refresh-token");
+
+        verify(refreshTokenRepo).revokeFamily(FAMILY);
+        assertTrue(revokedTokens.isRevoked(accessToken.tokenId()));
+        assertTrue(revokedTokens.isRevoked(FAMILY));
+    }
+
+    @Test
+    void logoutWithoutRefreshTokenOnlyRevokesTheAccessToken() {
+        VerifiedToken accessToken = new VerifiedToken("u1", "a0000000-0000-0000-0000-000000000004",
+                FAMILY, Instant.now(), Instant.now().plus(Duration.ofMinutes(10)));
+
+        service.logout(accessToken, null);
+
+        verify(refreshTokenRepo, never()).revokeFamily(anyString());
+        assertTrue(revokedTokens.isRevoked(accessToken));
+        assertFalse(revokedTokens.isRevoked(FAMILY));
+    }
+}
@@ -0,0 +1,68 @@
+package com.communityappbackend.Service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class HotImageCacheTest {
+
+    private final BlobStore store = mock(BlobStore.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HotImageCache cache = new HotImageCache(store, meterRegistry,
+            DataSize.ofKilobytes(64), DataSize.ofKilobytes(1));
+
+    private double cachedBytes() {
+        cache.get("none"); // any lookup applies pending Caffeine maintenance
+        return meterRegistry.get("image.hot.cache.bytes").gauge().value();
+    }
+
+    @Test
+    void smallImagesAreServedFromMemoryAfterTheFirstRead() throws Exception {
+        when(store.get("ab/small.jpg")).thenReturn(new ByteArrayResource(new byte[1024]));
+
+        Resource first = cache.get("ab/small.jpg");
+        Resource second = cache.get("ab/small.jpg");
+
+        assertInstanceOf(HotImageCache.CachedImage.class, first);
+        assertEquals("ab/small.jpg", second.getFilename());
+        assertEquals(1024, second.contentLength());
+        verify(store, times(1)).get("ab/small.jpg");
+    }
+
+    @Test
+    void imagesAboveThePerEntryLimitAreAlwaysReadFromTheStore() throws Exception {
+        ByteArrayResource large = new ByteArrayResource(new byte[1025]);
+        when(store.get("ab/large.jpg")).thenReturn(large);
+
+        assertSame(large, cache.get("ab/large.jpg"));
+        assertSame(large, cache.get("ab/large.jpg"));
+
+        // Never kept in memory: every request goes back to the store
+        verify(store, atLeast(2)).get("ab/large.jpg");
+        assertEquals(0, cachedBytes());
+    }
+
+    @Test
+    void missingImagesAreNullAndNotCached() {
+        assertNull(cache.get("ab/missing.jpg"));
+        assertNull(cache.get("ab/missing.jpg"));
+
+        verify(store, atLeast(2)).get("ab/missing.jpg");
+    }
+
+    @Test
+    void invalidateDropsTheInMemoryCopy() {
+        when(store.get("ab/small.jpg")).thenReturn(new ByteArrayResource(new byte[10]));
+        cache.get("ab/small.jpg");
+
+        cache.invalidate("ab/small.jpg");
+        cache.get("ab/small.jpg");
+
+        verify(store, times(2)).get("ab/small.jpg");
+    }
+}
@@ -0,0 +1,99 @@
+package com.communityappbackend.Service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ImageDerivativeServiceTest {
+
+    private final BlobStore store = mock(BlobStore.class);
+    private final ImageDerivativeService service =
+            new ImageDerivativeService(store, new int[]{480, 150, 1080}, 0.8f, 1, 10);
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void readsOrientationInBothByteOrders() {
+        assertEquals(6, ImageDerivativeService.parseOrientation(exif(ByteOrder.LITTLE_ENDIAN, 8, 6)));
+        assertEquals(8, ImageDerivativeService.parseOrientation(exif(ByteOrder.BIG_ENDIAN, 8, 8)));
+    }
+
+    @Test
+    void rejectsOutOfRangeOrientationValues() {
+        assertEquals(-1, ImageDerivativeService.parseOrientation(exif(ByteOrder.BIG_ENDIAN, 8, 0)));
+        assertEquals(-1, ImageDerivativeService.parseOrientation(exif(ByteOrder.BIG_ENDIAN, 8, 9)));
+    }
+
+    @Test
+    void hostileOffsetsAreIgnoredInsteadOfThrowing() {
+        // negative as a signed int, huge, inside the header, and just past the end
+        for (int offset : new int[]{0xFFFFFFF0, Integer.MIN_VALUE, 0x7FFFFFFF, 0, 4, 100}) {
+            assertEquals(-1, ImageDerivativeService.parseOrientation(exif(ByteOrder.LITTLE_ENDIAN, offset, 6)),
+                    "offset " + offset);
+        }
+        byte[] truncated = Arrays.copyOf(exif(ByteOrder.BIG_ENDIAN, 8, 6), 20);
+        assertEquals(-1, ImageDerivativeService.parseOrientation(truncated));
+
+        byte[] badByteOrder = exif(ByteOrder.BIG_ENDIAN, 8, 6);
+        badByteOrder[6] = 'X';
+        assertEquals(-1, ImageDerivativeService.parseOrientation(badByteOrder));
+    }
+
+    @Test
+    void derivativeKeysReplaceTheExtension() {
+        assertEquals("abc_480.jpg", ImageDerivativeService.derivativeKey("abc.png", 480));
+        assertEquals("abc_150.jpg", ImageDerivativeService.derivativeKey("abc", 150));
+    }
+
+    @Test
+    void picksTheSmallestSizeThatFitsOrTheOriginal() {
+        assertFalse(service.servesOriginal(100));
+        assertFalse(service.servesOriginal(1080));
+        assertTrue(service.servesOriginal(1081));
+    }
+
+    @Test
+    void aFileThatFailsToDecodeIsNotQueuedAgain() throws Exception {
+        // JPEG signature followed by garbage: a reader is found but decoding throws
+        byte[] corrupt = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xDB, 0, 3, 1, 2, 3, 4, 5};
+        when(store.get("bad.jpg")).thenReturn(new ByteArrayResource(corrupt));
+
+        service.generate("bad.jpg");
+
+        assertNull(service.find("bad.jpg", 150));
+        assertNull(service.find("bad.jpg", 480));
+        // Only the one decode above; find() did not schedule another
+        verify(store, after(300).times(1)).get("bad.jpg");
+        verify(store, never()).putDerived(anyString(), any());
+    }
+
+    // "Exif\0\0" + TIFF header pointing at an IFD with one Orientation entry
+    private static byte[] exif(ByteOrder order, int ifdOffset, int orientation) {
+        ByteBuffer b = ByteBuffer.allocate(6 + 8 + 2 + 12 + 4).order(order);
+        b.put("Exif\0\0".getBytes(StandardCharsets.US_ASCII));
+        b.put(order == ByteOrder.LITTLE_ENDIAN ? (byte) 'I' : (byte) 'M');
+        b.put(order == ByteOrder.LITTLE_ENDIAN ? (byte) 'I' : (byte) 'M');
+        b.putShort((short) 42);
+        b.putInt(ifdOffset);
+        b.putShort((short) 1);             // one entry
+        b.putShort((short) 0x0112);        // Orientation
+        b.putShort((short) 3);             // SHORT
+        b.putInt(1);                       // count
+        b.putShort((short) orientation);
+        b.putShort((short) 0);
+        b.putInt(0);                       // no next IFD
+        return b.array();
+    }
+}
@@ -0,0 +1,103 @@
+package com.communityappbackend.Service;
+
+import com.communityappbackend.DTO.ItemResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemDetailCacheTest {
+
+    private final ItemDetailCache cache = new ItemDetailCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private Function<String, ItemDetailCache.Entry> loader(String ownerId) {
+        return itemId -> {
+            loads.incrementAndGet();
+            return new ItemDetailCache.Entry(ItemResponse.builder().itemId(itemId).title("v" + loads.get()).build(),
+                    ownerId);
+        };
+    }
+
+    @Test
+    void concurrentMissesForOneItemShareASingleLoad() throws Exception {
+        int callers = 16;
+        CountDownLatch loaderEntered = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        Function<String, ItemDetailCache.Entry> slowLoader = itemId -> {
+            loads.incrementAndGet();
+            loaderEntered.countDown();
+            try {
+                releaseLoader.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new ItemDetailCache.Entry(ItemResponse.builder().itemId(itemId).build(), "o1");
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<ItemResponse>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get("i1", slowLoader)));
+            assertTrue(loaderEntered.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < callers; i++) {
+                results.add(executor.submit(() -> cache.get("i1", slowLoader)));
+            }
+            Thread.sleep(100); // let the other callers reach the in-flight load
+            releaseLoader.countDown();
+
+            ItemResponse first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<ItemResponse> result : results) {
+                assertSame(first, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void unknownItemsAreNotCached() {
+        Function<String, ItemDetailCache.Entry> missing = itemId -> {
+            loads.incrementAndGet();
+            return null;
+        };
+
+        assertNull(cache.get("ghost", missing));
+        assertNull(cache.get("ghost", missing));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidateReloadsTheItem() {
+        cache.get("i1", loader("o1"));
+        cache.get("i1", loader("o1"));
+        assertEquals(1, loads.get());
+
+        cache.invalidate("i1");
+
+        assertEquals("v2", cache.get("i1", loader("o1")).getTitle());
+    }
+
+    @Test
+    void invalidateOwnerDropsEveryListingOfThatOwnerOnly() {
+        cache.get("a1", loader("owner-a"));
+        cache.get("a2", loader("owner-a"));
+        cache.get("b1", loader("owner-b"));
+        assertEquals(3, loads.get());
+
+        cache.invalidateOwner("owner-a");
+
+        cache.get("a1", loader("owner-a"));
+        cache.get("a2", loader("owner-a"));
+        cache.get("b1", loader("owner-b"));
+        assertEquals(5, loads.get());
+    }
+}
@@ -0,0 +1,111 @@
+package com.communityappbackend.Service;
+
+import com.communityappbackend.Repository.ItemImageRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemImageIngestorTest {
+
+    private static final byte[] JPEG = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0, 0x10, 'J', 'F', 'I', 'F'};
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0, 0, 0, 0x0D};
+
+    @TempDir
+    Path root;
+
+    private LocalBlobStore store;
+    private ItemImageRepository imageRepo;
+    private ItemImageIngestor ingestor;
+
+    @BeforeEach
+    void setUp() {
+        store = new LocalBlobStore(root);
+        imageRepo = mock(ItemImageRepository.class);
+        ingestor = new ItemImageIngestor(store, imageRepo, 2, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ingestor.shutdown();
+    }
+
+    @Test
+    void detectsSupportedFormatsByTheirSignatures() {
+        assertEquals("jpg", ItemImageIngestor.detectExtension(JPEG));
+        assertEquals("png", ItemImageIngestor.detectExtension(PNG));
+        assertEquals("gif", ItemImageIngestor.detectExtension(ascii("GIF89a\u0001\u0000")));
+        assertEquals("gif", ItemImageIngestor.detectExtension(ascii("GIF87a\u0001\u0000")));
+        assertEquals("webp", ItemImageIngestor.detectExtension(ascii("RIFF\u0000\u0000\u0000\u0000WEBPVP8 ")));
+        assertEquals("heic", ItemImageIngestor.detectExtension(ascii("\u0000\u0000\u0000\u0018ftypheic")));
+        assertEquals("heic", ItemImageIngestor.detectExtension(ascii("\u0000\u0000\u0000\u0018ftypmif1")));
+    }
+
+    @Test
+    void rejectsEverythingElseIncludingTruncatedHeaders() {
+        assertNull(ItemImageIngestor.detectExtension(new byte[0]));
+        assertNull(ItemImageIngestor.detectExtension(Arrays.copyOf(JPEG, 2)));
+        assertNull(ItemImageIngestor.detectExtension(Arrays.copyOf(PNG, 7)));
+        assertNull(ItemImageIngestor.detectExtension(ascii("<?php echo 1; ?>")));
+        assertNull(ItemImageIngestor.detectExtension(ascii("RIFF\u0000\u0000\u0000\u0000WAVEfmt ")));
+        assertNull(ItemImageIngestor.detectExtension(ascii("\u0000\u0000\u0000\u0018ftypmp42")));
+    }
+
+    @Test
+    void namesStoredFilesAfterTheDetectedTypeNotTheUploadName() {
+        List<String> keys = ingestor.store(List.of(file("holiday.exe", PNG), file("cat.png", JPEG)));
+
+        assertEquals(2, keys.size());
+        assertTrue(keys.get(0).endsWith(".png"));
+        assertTrue(keys.get(1).endsWith(".jpg"));
+        assertTrue(keys.stream().allMatch(store::exists));
+    }
+
+    @Test
+    void oneBadFileDiscardsTheOthers() throws Exception {
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> ingestor.store(List.of(file("a.jpg", JPEG), file("b.jpg", ascii("not an image")))));
+
+        assertEquals("Unsupported image file: b.jpg", e.getMessage());
+        String jpegKey = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(JPEG)) + ".jpg";
+        assertFalse(store.exists(jpegKey));
+        assertEquals(0, store.pinCount(jpegKey));
+    }
+
+    @Test
+    void discardKeepsContentAnotherListingIsStillUploading() {
+        when(imageRepo.existsByImagePath(anyString())).thenReturn(false);
+        List<String> pending = ingestor.store(List.of(file("a.jpg", JPEG))); // listing 1, not committed yet
+        List<String> failed = ingestor.store(List.of(file("b.jpg", JPEG)));  // listing 2, same bytes
+        assertEquals(pending, failed);
+
+        ingestor.discard(failed);
+        assertTrue(store.exists(pending.get(0)), "listing 1 still needs the file");
+
+        // Once listing 1 gives up as well, nothing holds the content any more
+        ingestor.discard(pending);
+        assertFalse(store.exists(pending.get(0)));
+    }
+
+    private static MultipartFile file(String name, byte[] content) {
+        return new MockMultipartFile("files", name, "application/octet-stream", content);
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,138 @@
+package com.communityappbackend.Service;
+
+import com.communityappbackend.DTO.PageCursor;
+import com.communityappbackend.Model.Item;
+import com.communityappbackend.Repository.ItemLocationView;
+import com.communityappbackend.Repository.ItemRepository;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ItemLocationIndexTest {
+
+    private final ItemRepository itemRepo = mock(ItemRepository.class);
+    private final ItemLocationIndex index = new ItemLocationIndex(itemRepo);
+
+    private record Row(String itemId, String ownerId, Long categoryId, Double price, Timestamp createdAt,
+                       String city, String province) implements ItemLocationView {
+        public String getItemId() { return itemId; }
+        public String getOwnerId() { return ownerId; }
+        public Long getCategoryId() { return categoryId; }
+        public Double getPrice() { return price; }
+        public Timestamp getCreatedAt() { return createdAt; }
+        public String getCity() { return city; }
+        public String getProvince() { return province; }
+    }
+
+    private static Item item(String itemId, String ownerId, long createdAt, Long categoryId, Double price) {
+        return Item.builder().itemId(itemId).ownerId(ownerId).categoryId(categoryId).price(price)
+                .createdAt(new Timestamp(createdAt)).build();
+    }
+
+    private List<String> page(ItemLocationIndex.Scope scope, String city, String province, String excludeOwnerId,
+                              PageCursor after, int limit) {
+        return index.page(scope, city, province, excludeOwnerId, null, null, null, after, limit).stream()
+                .map(ItemLocationIndex.Entry::itemId).toList();
+    }
+
+    @Test
+    void regionPagesAreNewestFirstWithItemIdTieBreak() {
+        index.index(item("a", "o1", 1000, 1L, 10.0), "Colombo", "Western");
+        index.index(item("b", "o1", 3000, 1L, 10.0), "Colombo", "Western");
+        index.index(item("c", "o2", 3000, 1L, 10.0), " colombo ", "WESTERN");
+        index.index(item("d", "o3", 2000, 1L, 10.0), "Gampaha", "Western");
+
+        assertEquals(List.of("c", "b", "a"), page(ItemLocationIndex.Scope.CITY, "Colombo", "Western", null, null, 10));
+        assertEquals(List.of("c", "b", "d", "a"),
+                page(ItemLocationIndex.Scope.PROVINCE, "Colombo", "Western", null, null, 10));
+        assertEquals(List.of(), page(ItemLocationIndex.Scope.CITY, "Colombo", "Southern", null, null, 10));
+        assertEquals(List.of(), page(ItemLocationIndex.Scope.CITY, null, "Western", null, null, 10));
+    }
+
+    @Test
+    void viewerOwnItemsAndFilteredOnesAreSkipped() {
+        index.index(item("a", "me", 3000, 1L, 10.0), "Colombo", "Western");
+        index.index(item("b", "o1", 2000, 2L, 10.0), "Colombo", "Western");
+        index.index(item("c", "o1", 1000, 1L, null), "Colombo", "Western");
+        index.index(item("d", "o1", 500, 1L, 50.0), "Colombo", "Western");
+
+        assertEquals(List.of("b", "c", "d"), page(ItemLocationIndex.Scope.CITY, "Colombo", "Western", "me", null, 10));
+        List<String> filtered = index.page(ItemLocationIndex.Scope.CITY, "Colombo", "Western", "me",
+                1L, 20.0, null, null, 10).stream().map(ItemLocationIndex.Entry::itemId).toList();
+        assertEquals(List.of("d"), filtered);
+    }
+
+    @Test
+    void cursorResumesAfterTheLastEntryOfThePreviousPage() {
+        for (int i = 0; i < 5; i++) {
+            index.index(item("i" + i, "o1", 1000L * i, 1L, 1.0), "Colombo", "Western");
+        }
+        index.index(item("j3", "o1", 3000, 1L, 1.0), "Colombo", "Western"); // same time as i3
+
+        List<ItemLocationIndex.Entry> first = index.page(ItemLocationIndex.Scope.CITY, "Colombo", "Western",
+                null, null, null, null, null, 3);
+        assertEquals(List.of("i4", "j3", "i3"), first.stream().map(ItemLocationIndex.Entry::itemId).toList());
+
+        PageCursor cursor = PageCursor.decode(first.get(2).cursor().encode());
+        assertEquals(List.of("i2", "i1", "i0"),
+                page(ItemLocationIndex.Scope.CITY, "Colombo", "Western", null, cursor, 3));
+    }
+
+    @Test
+    void ownerMovedTakesAllTheirItemsToTheNewRegion() {
+        index.index(item("a", "o1", 1000, 1L, 1.0), "Colombo", "Western");
+        index.index(item("b", "o1", 2000, 1L, 1.0), "Colombo", "Western");
+        index.index(item("c", "o2", 3000, 1L, 1.0), "Colombo", "Western");
+
+        index.ownerMoved("o1", "Galle", "Southern");
+
+        assertEquals(List.of("c"), page(ItemLocationIndex.Scope.CITY, "Colombo", "Western", null, null, 10));
+        assertEquals(List.of("c"), page(ItemLocationIndex.Scope.PROVINCE, null, "Western", null, null, 10));
+        assertEquals(List.of("b", "a"), page(ItemLocationIndex.Scope.CITY, "Galle", "Southern", null, null, 10));
+    }
+
+    @Test
+    void inactiveOrRemovedItemsDropOut() {
+        index.index(item("a", "o1", 1000, 1L, 1.0), "Colombo", "Western");
+        index.index(item("b", "o1", 2000, 1L, 1.0), "Colombo", "Western");
+
+        Item traded = item("a", "o1", 1000, 1L, 1.0);
+        traded.setStatus("TRADED");
+        index.index(traded, "Colombo", "Western");
+        index.remove("b");
+
+        assertEquals(List.of(), page(ItemLocationIndex.Scope.CITY, "Colombo", "Western", null, null, 10));
+    }
+
+    @Test
+    void rebuildServesTheOldIndexUntilItSwapsAndKeepsChangesMadeDuringTheScan() {
+        index.index(item("old", "o1", 500, 1L, 1.0), "Colombo", "Western");
+
+        AtomicReference<List<String>> seenDuringScan = new AtomicReference<>();
+        when(itemRepo.findLocationBatch(eq("ACTIVE"), anyString(), any())).thenAnswer(inv -> {
+            // Changes while the scan runs: a new listing, a removal, and an owner moving away
+            index.index(item("new", "o3", 4000, 1L, 1.0), "Colombo", "Western");
+            index.remove("b");
+            index.ownerMoved("o2", "Galle", "Southern");
+            seenDuringScan.set(page(ItemLocationIndex.Scope.CITY, "Colombo", "Western", null, null, 10));
+            List<ItemLocationView> rows = new ArrayList<>();
+            rows.add(new Row("a", "o1", 1L, 1.0, new Timestamp(1000), "Colombo", "Western"));
+            rows.add(new Row("b", "o1", 1L, 1.0, new Timestamp(2000), "Colombo", "Western"));
+            rows.add(new Row("c", "o2", 1L, 1.0, new Timestamp(3000), "Colombo", "Western"));
+            return rows;
+        });
+
+        index.rebuild();
+
+        assertEquals(List.of("new", "old"), seenDuringScan.get());
+        assertEquals(List.of("new", "a"), page(ItemLocationIndex.Scope.CITY, "Colombo", "Western", null, null, 10));
+        assertEquals(List.of("c"), page(ItemLocationIndex.Scope.CITY, "Galle", "Southern", null, null, 10));
+    }
+}
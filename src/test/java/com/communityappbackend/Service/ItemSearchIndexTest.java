@@ -0,0 +1,118 @@
+package com.communityappbackend.Service;
+
+import com.communityappbackend.Model.Item;
+import com.communityappbackend.Repository.ItemRepository;
+import com.communityappbackend.Repository.ItemTextView;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+
+    @Mock
+    private ItemRepository itemRepo;
+
+    @Test
+    void tokenizeLowercasesSplitsOnNonWordsAndDropsSingleCharacters() {
+        assertEquals(List.of("red", "bicycle", "26", "wheels", "übergröße"),
+                ItemSearchIndex.tokenize("Red BICYCLE, 26\" wheels - a Übergröße!"));
+        assertTrue(ItemSearchIndex.tokenize("  ").isEmpty());
+        assertTrue(ItemSearchIndex.tokenize(null).isEmpty());
+    }
+
+    @Test
+    void prefixFindsLongerTermsButExactMatchesRankHigher() {
+        ItemSearchIndex index = new ItemSearchIndex(itemRepo);
+        index.index(item("prefix", "Bicycle pump", null));
+        index.index(item("exact", "Old bic lighter", null));
+        index.index(item("other", "Kitchen table", null));
+
+        assertEquals(List.of("exact", "prefix"), index.search("bic", null, 0, 10));
+        assertTrue(index.search("zzz", null, 0, 10).isEmpty());
+    }
+
+    @Test
+    void titleMatchesOutrankDescriptionMatches() {
+        ItemSearchIndex index = new ItemSearchIndex(itemRepo);
+        index.index(item("in-description", "Wooden chair", "comes with a lamp"));
+        index.index(item("in-title", "Desk lamp", "wooden base"));
+
+        assertEquals(List.of("in-title", "in-description"), index.search("lamp", null, 0, 10));
+    }
+
+    @Test
+    void rarerTermsWeighMoreAndPagingFollowsRank() {
+        ItemSearchIndex index = new ItemSearchIndex(itemRepo);
+        index.index(item("a", "guitar case", null));
+        index.index(item("b", "guitar strings", null));
+        index.index(item("c", "guitar amplifier", null));
+        index.index(item("d", "case for phone", null));
+
+        // "amplifier" occurs once, "guitar" three times, so c beats a and b for "guitar amplifier"
+        List<String> ranked = index.search("guitar amplifier", null, 0, 10);
+        assertEquals("c", ranked.get(0));
+        assertEquals(3, ranked.size());
+        assertEquals(ranked.subList(1, 3), index.search("guitar amplifier", null, 1, 2));
+        assertTrue(index.search("guitar amplifier", null, 5, 2).isEmpty());
+    }
+
+    @Test
+    void excludesTheCallersOwnItemsAndDropsInactiveOnes() {
+        ItemSearchIndex index = new ItemSearchIndex(itemRepo);
+        Item mine = item("mine", "vintage radio", null);
+        mine.setOwnerId("me");
+        index.index(mine);
+        index.index(item("theirs", "vintage radio", null));
+
+        assertEquals(List.of("theirs"), index.search("radio", "me", 0, 10));
+
+        Item sold = item("theirs", "vintage radio", null);
+        sold.setStatus("SOLD");
+        index.index(sold);
+        assertEquals(List.of("mine"), index.search("radio", null, 0, 10));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void rebuildDoesNotDuplicateOrResurrectItemsChangedWhileItRuns() {
+        ItemSearchIndex index = new ItemSearchIndex(itemRepo);
+        Item added = item("added", "new lamp", null);
+        Item deactivated = item("deactivated", "old lamp", null);
+        deactivated.setStatus("INACTIVE");
+
+        // The batch was read before these live updates were applied
+        when(itemRepo.findTextBatch(eq("ACTIVE"), eq(""), any())).thenAnswer(inv -> {
+            index.index(added);
+            index.index(deactivated);
+            return List.of(row("added", "new lamp"), row("deactivated", "old lamp"), row("kept", "desk lamp"));
+        });
+
+        index.rebuild();
+
+        assertEquals(2, index.size());
+        List<String> hits = index.search("lamp", null, 0, 10);
+        assertEquals(2, hits.size());
+        assertTrue(hits.containsAll(List.of("added", "kept")));
+    }
+
+    private static Item item(String itemId, String title, String description) {
+        return Item.builder().itemId(itemId).ownerId("owner").title(title).description(description).build();
+    }
+
+    private static ItemTextView row(String itemId, String title) {
+        return new ItemTextView() {
+            public String getItemId() { return itemId; }
+            public String getOwnerId() { return "owner"; }
+            public String getTitle() { return title; }
+            public String getDescription() { return null; }
+        };
+    }
+}
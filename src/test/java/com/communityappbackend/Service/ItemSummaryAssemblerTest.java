@@ -0,0 +1,93 @@
+package com.communityappbackend.Service;
+
+import com.communityappbackend.DTO.ItemSummaryResponse;
+import com.communityappbackend.DTO.OwnerSummary;
+import com.communityappbackend.Repository.ItemImageRepository;
+import com.communityappbackend.Repository.ItemImageView;
+import com.communityappbackend.Repository.ItemListRow;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ItemSummaryAssemblerTest {
+
+    private final ItemImageRepository imageRepo = mock(ItemImageRepository.class);
+    private final OwnerSummaryCache ownerSummaryCache = mock(OwnerSummaryCache.class);
+    private final ItemSummaryAssembler assembler = new ItemSummaryAssembler(imageRepo, ownerSummaryCache);
+
+    private record Image(String itemId, String imagePath) implements ItemImageView {
+        public String getItemId() { return itemId; }
+        public String getImagePath() { return imagePath; }
+    }
+
+    private static ItemListRow row(String itemId, String ownerId) {
+        return new ItemListRow(itemId, ownerId, "Title " + itemId, 25.0, 3L, "ACTIVE",
+                Timestamp.valueOf(LocalDateTime.of(2024, 5, 6, 7, 8, 9)));
+    }
+
+    @Test
+    void rowsKeepTheirOrderAndGetTheirFirstImageAndOwner() {
+        when(imageRepo.findFirstImages(anyCollection())).thenReturn(List.of(
+                new Image("i1", "Assets/ab/abcd.jpg"), new Image("i3", "cd/cdef.png")));
+        when(ownerSummaryCache.getAll(anyCollection())).thenReturn(Map.of(
+                "o1", OwnerSummary.builder().userId("o1").fullName("Ann").profileImageUrl("http://img/o1").build()));
+
+        List<ItemSummaryResponse> summaries = assembler.toSummaries(
+                List.of(row("i3", "o1"), row("i1", "o1"), row("i2", "o2")), true);
+
+        assertEquals(List.of("i3", "i1", "i2"), summaries.stream().map(ItemSummaryResponse::getItemId).toList());
+
+        ItemSummaryResponse first = summaries.get(1);
+        assertEquals("Title i1", first.getTitle());
+        assertEquals(25.0, first.getPrice());
+        assertEquals(3L, first.getCategoryId());
+        assertEquals("ACTIVE", first.getStatus());
+        assertEquals("2024-05-06 07:08:09", first.getCreatedAt());
+        assertEquals(List.of(ItemImageUrls.original("ab/abcd.jpg")), first.getImages());
+        assertEquals(List.of(ItemImageUrls.thumbnail("ab/abcd.jpg")), first.getThumbnails());
+        assertEquals("Ann", first.getOwnerFullName());
+        assertEquals("http://img/o1", first.getOwnerProfileImage());
+
+        // No image and an unknown owner: empty lists and empty owner fields rather than nulls
+        ItemSummaryResponse bare = summaries.get(2);
+        assertTrue(bare.getImages().isEmpty());
+        assertTrue(bare.getThumbnails().isEmpty());
+        assertEquals("", bare.getOwnerFullName());
+        assertEquals("", bare.getOwnerProfileImage());
+    }
+
+    @Test
+    void wholePageCostsOneImageQueryAndOneOwnerLookup() {
+        when(imageRepo.findFirstImages(anyCollection())).thenReturn(List.of());
+        when(ownerSummaryCache.getAll(anyCollection())).thenReturn(Map.of());
+
+        assembler.toSummaries(List.of(row("i1", "o1"), row("i2", "o1"), row("i3", "o2")), true);
+
+        verify(imageRepo, times(1)).findFirstImages(List.of("i1", "i2", "i3"));
+        verify(ownerSummaryCache, times(1)).getAll(Set.of("o1", "o2"));
+    }
+
+    @Test
+    void listsWithoutOwnersSkipTheOwnerLookup() {
+        when(imageRepo.findFirstImages(anyCollection())).thenReturn(List.of());
+
+        List<ItemSummaryResponse> summaries = assembler.toSummaries(List.of(row("i1", "o1")), false);
+
+        assertNull(summaries.get(0).getOwnerFullName());
+        verifyNoInteractions(ownerSummaryCache);
+    }
+
+    @Test
+    void emptyPageRunsNoQueries() {
+        assertTrue(assembler.toSummaries(List.of(), true).isEmpty());
+        verifyNoInteractions(imageRepo, ownerSummaryCache);
+    }
+}
@@ -0,0 +1,112 @@
+package com.communityappbackend.Service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalBlobStoreTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void keyIsTheContentHashWithANormalizedExtension() throws IOException {
+        LocalBlobStore store = new LocalBlobStore(root);
+
+        // SHA-256 of "hello"
+        String key = store.put(bytes("hello"), "Photo.JPEG");
+
+        assertEquals("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824.jpg", key);
+        assertTrue(Files.isRegularFile(root.resolve("2c/f2").resolve(key)));
+        assertEquals("hello", read(store, key));
+    }
+
+    @Test
+    void identicalContentIsStoredOnce() throws IOException {
+        LocalBlobStore store = new LocalBlobStore(root);
+
+        String first = store.put(bytes("same"), "a.png");
+        String second = store.put(bytes("same"), "b.png");
+
+        assertEquals(first, second);
+        try (var files = Files.walk(root)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"../secret.txt", "..", ".tmp", "a/b.jpg", "a\\b.jpg", "/etc/passwd", ""})
+    void keysThatEscapeTheRootAreRejected(String key) throws IOException {
+        Path outside = root.getParent().resolve("secret.txt");
+        Files.writeString(outside, "keep");
+        try {
+            LocalBlobStore store = new LocalBlobStore(root);
+
+            assertNull(store.get(key));
+            assertFalse(store.exists(key));
+            assertFalse(store.deleteIfUnreferenced(key, () -> false));
+            assertTrue(Files.exists(outside));
+            assertThrows(IllegalArgumentException.class,
+                    () -> store.putDerived(key, bytes("overwrite")));
+        } finally {
+            Files.deleteIfExists(outside);
+        }
+    }
+
+    @Test
+    void legacyFlatKeysAreStillServed() throws IOException {
+        Files.writeString(root.resolve("0b1e_old-upload.jpg"), "legacy");
+        LocalBlobStore store = new LocalBlobStore(root);
+
+        assertEquals("legacy", read(store, "0b1e_old-upload.jpg"));
+    }
+
+    @Test
+    void pinnedKeysAreNotDeletedUntilReleased() throws IOException {
+        LocalBlobStore store = new LocalBlobStore(root);
+        String key = store.put(bytes("shared"), "x.jpg");
+        String again = store.put(bytes("shared"), "x.jpg"); // second upload of the same bytes
+        assertEquals(2, store.pinCount(key));
+
+        store.release(key);
+        assertFalse(store.deleteIfUnreferenced(key, () -> false), "still pinned by the second upload");
+        assertTrue(store.exists(key));
+
+        store.release(again);
+        assertEquals(0, store.pinCount(key));
+        assertFalse(store.deleteIfUnreferenced(key, () -> true), "a row still references it");
+        assertTrue(store.deleteIfUnreferenced(key, () -> false));
+        assertFalse(store.exists(key));
+    }
+
+    @Test
+    void uploadAfterCleanupWritesTheFileAgain() throws IOException {
+        LocalBlobStore store = new LocalBlobStore(root);
+        String key = store.put(bytes("again"), "x.jpg");
+        store.release(key);
+        assertTrue(store.deleteIfUnreferenced(key, () -> false));
+
+        assertEquals(key, store.put(bytes("again"), "x.jpg"));
+        assertEquals("again", read(store, key));
+    }
+
+    private static InputStream bytes(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(BlobStore store, String key) throws IOException {
+        try (InputStream in = store.get(key).getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.communityappbackend.Service;
+
+import com.communityappbackend.Model.Notification;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationHubTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final NotificationHub hub = new NotificationHub(meterRegistry,
+            Duration.ofMinutes(1), Duration.ofHours(1), 2, 5, 1);
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    // Records the id of each event sent; sends can be held back to emulate a client that stopped reading
+    private static class RecordingEmitter extends SseEmitter {
+        final List<String> sentIds = new CopyOnWriteArrayList<>();
+        final CountDownLatch release;
+        final CountDownLatch firstSendStarted = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            firstSendStarted.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            builder.build().stream()
+                    .map(d -> d.getData().toString())
+                    .filter(text -> text.startsWith("id:"))
+                    .forEach(text -> sentIds.add(text.substring(3, text.indexOf('\n'))));
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+
+    private static Notification notification(String id) {
+        return Notification.builder().notificationId(id).userId("u1").message("m")
+                .createdAt(new Timestamp(1_000L)).build();
+    }
+
+    private double connections() {
+        return meterRegistry.get("notifications.stream.connections").gauge().value();
+    }
+
+    @Test
+    void clientThatFallsABufferBehindIsDisconnected() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter emitter = new RecordingEmitter(release);
+        hub.connect("u1", List::of, emitter);
+
+        hub.publish(List.of(notification("n1")));
+        assertTrue(emitter.firstSendStarted.await(5, TimeUnit.SECONDS));
+        // n1 is stuck in the write; the buffer (size 2) takes n2 and n3, n4 overflows it
+        hub.publish(List.of(notification("n2"), notification("n3"), notification("n4")));
+
+        assertTrue(emitter.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(0, connections());
+
+        // Nothing more is queued for it once the stuck write returns
+        release.countDown();
+        hub.publish(List.of(notification("n5")));
+        Thread.sleep(100);
+        assertEquals(List.of("1000_n1"), emitter.sentIds);
+    }
+
+    @Test
+    void replayedNotificationsAreNotSentAgainFromTheLiveFeed() throws Exception {
+        CountDownLatch release = new CountDownLatch(0);
+        RecordingEmitter emitter = new RecordingEmitter(release);
+
+        // Live notifications published while the replay query runs: n2 is in both, n3 only live
+        hub.connect("u1", () -> {
+            hub.publish(List.of(notification("n2"), notification("n3")));
+            return List.of(notification("n1"), notification("n2"));
+        }, emitter);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (emitter.sentIds.size() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(50);
+        assertEquals(List.of("1000_n1", "1000_n2", "1000_n3"), emitter.sentIds);
+        assertEquals(1, connections());
+    }
+}
@@ -0,0 +1,134 @@
+package com.communityappbackend.Service;
+
+import com.communityappbackend.DTO.OwnerSummary;
+import com.communityappbackend.Model.User;
+import com.communityappbackend.Model.UserProfileImage;
+import com.communityappbackend.Repository.UserProfileImageRepository;
+import com.communityappbackend.Repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+class OwnerSummaryCacheTest {
+
+    private final UserRepository userRepo = mock(UserRepository.class);
+    private final UserProfileImageRepository profileImageRepo = mock(UserProfileImageRepository.class);
+    private final OwnerSummaryCache cache = new OwnerSummaryCache(userRepo, profileImageRepo,
+            new SimpleMeterRegistry(), 100, Duration.ofMinutes(10));
+
+    // The repositories answer with whichever of the known users were asked for
+    private final Map<String, User> users = new HashMap<>();
+    private final Map<String, UserProfileImage> avatars = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        when(userRepo.findAllById(anyIterable())).thenAnswer(inv -> {
+            List<User> found = new ArrayList<>();
+            for (Object id : (Iterable<?>) inv.getArgument(0)) {
+                if (users.containsKey(id)) found.add(users.get(id));
+            }
+            return found;
+        });
+        when(profileImageRepo.findByUserIdIn(anyCollection())).thenAnswer(inv -> {
+            List<UserProfileImage> found = new ArrayList<>();
+            for (Object id : (Collection<?>) inv.getArgument(0)) {
+                if (avatars.containsKey(id)) found.add(avatars.get(id));
+            }
+            return found;
+        });
+    }
+
+    private void user(String userId, String fullName, String avatarPath) {
+        users.put(userId, User.builder().userId(userId).fullName(fullName).email(userId + "@x.y").build());
+        if (avatarPath != null) {
+            avatars.put(userId, UserProfileImage.builder().userId(userId).imagePath(avatarPath).build());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String> requestedIds(int call) {
+        List<Iterable<String>> calls = new ArrayList<>();
+        mockingDetails(userRepo).getInvocations().stream()
+                .filter(inv -> inv.getMethod().getName().equals("findAllById"))
+                .forEach(inv -> calls.add((Iterable<String>) inv.getArgument(0)));
+        Set<String> ids = new HashSet<>();
+        calls.get(call).forEach(ids::add);
+        return ids;
+    }
+
+    @Test
+    void missesOfAPageAreLoadedInOneBatch() {
+        user("u1", "Ann", "Assets/ProfileImages/u1.jpg");
+        user("u2", "Ben", null);
+        user("u3", "Cat", null);
+
+        Map<String, OwnerSummary> owners = cache.getAll(List.of("u1", "u2", "u1", "u3"));
+
+        assertEquals(Set.of("u1", "u2", "u3"), owners.keySet());
+        assertEquals("Ann", owners.get("u1").getFullName());
+        assertTrue(owners.get("u1").getProfileImageUrl().endsWith("/image/ProfileImages/u1.jpg"));
+        assertEquals("", owners.get("u2").getProfileImageUrl());
+        assertEquals("", owners.get("u2").getAddress());
+        verify(userRepo, times(1)).findAllById(anyIterable());
+        verify(profileImageRepo, times(1)).findByUserIdIn(anyCollection());
+    }
+
+    @Test
+    void onlyMissesAreLoadedOnTheNextPage() {
+        user("u1", "Ann", null);
+        user("u2", "Ben", null);
+        user("u3", "Cat", null);
+        cache.getAll(List.of("u1", "u2"));
+
+        Map<String, OwnerSummary> owners = cache.getAll(List.of("u1", "u2", "u3"));
+
+        assertEquals(3, owners.size());
+        verify(userRepo, times(2)).findAllById(anyIterable());
+        assertEquals(Set.of("u3"), requestedIds(1));
+    }
+
+    @Test
+    void unknownUsersAreAbsent() {
+        user("u1", "Ann", null);
+
+        Map<String, OwnerSummary> owners = cache.getAll(List.of("u1", "ghost"));
+
+        assertEquals(Set.of("u1"), owners.keySet());
+        assertNull(cache.get("ghost"));
+        assertTrue(cache.getAll(List.of()).isEmpty());
+    }
+
+    @Test
+    void invalidateReloadsOnlyThatUser() {
+        user("u1", "Ann", null);
+        user("u2", "Ben", null);
+        cache.getAll(List.of("u1", "u2"));
+
+        user("u1", "Annie", "Assets/ProfileImages/new.jpg");
+        cache.invalidate("u1");
+        Map<String, OwnerSummary> owners = cache.getAll(List.of("u1", "u2"));
+
+        assertEquals("Annie", owners.get("u1").getFullName());
+        assertTrue(owners.get("u1").getProfileImageUrl().endsWith("/image/ProfileImages/new.jpg"));
+        assertEquals(Set.of("u1"), requestedIds(1));
+    }
+
+    @Test
+    void withoutInvalidationCachedSummariesAreServed() {
+        user("u1", "Ann", null);
+        cache.get("u1");
+
+        user("u1", "Annie", null);
+
+        assertEquals("Ann", cache.get("u1").getFullName());
+        verify(userRepo, times(1)).findAllById(anyIterable());
+    }
+}
@@ -0,0 +1,152 @@
+package com.communityappbackend.Service;
+
+import com.communityappbackend.DTO.CursorPage;
+import com.communityappbackend.DTO.ItemSummaryResponse;
+import com.communityappbackend.DTO.PageCursor;
+import com.communityappbackend.Model.User;
+import com.communityappbackend.Repository.FeedSort;
+import com.communityappbackend.Repository.ItemFeedQuery;
+import com.communityappbackend.Repository.ItemListRow;
+import com.communityappbackend.Repository.ItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Page boundaries of the keyset-paginated marketplace feed.
+ */
+class TradeItemServiceFeedTest {
+
+    private final ItemRepository itemRepo = mock(ItemRepository.class);
+    private final ItemSummaryAssembler summaryAssembler = mock(ItemSummaryAssembler.class);
+    private final TradeItemService service = new TradeItemService(itemRepo, mock(OwnerSummaryCache.class),
+            mock(ItemSearchIndex.class), mock(ItemLocationIndex.class), mock(ItemDetailCache.class),
+            summaryAssembler);
+    private final Authentication auth =
+            new TestingAuthenticationToken(User.builder().userId("me").build(), null);
+
+    @BeforeEach
+    void setUp() {
+        when(summaryAssembler.toSummaries(anyList(), anyBoolean())).thenAnswer(inv ->
+                ((List<ItemListRow>) inv.getArgument(0)).stream()
+                        .map(row -> ItemSummaryResponse.builder().itemId(row.getItemId()).build())
+                        .toList());
+    }
+
+    private static ItemListRow row(String itemId, long createdAt, Double price) {
+        return new ItemListRow(itemId, "owner", "title", price, 1L, "ACTIVE", new Timestamp(createdAt));
+    }
+
+    private ItemFeedQuery lastQuery() {
+        ArgumentCaptor<ItemFeedQuery> query = ArgumentCaptor.forClass(ItemFeedQuery.class);
+        verify(itemRepo, atLeastOnce()).findFeedPage(query.capture());
+        return query.getValue();
+    }
+
+    private CursorPage<ItemSummaryResponse> feed(String cursor, Integer limit) {
+        return service.getAllActiveExceptUser(auth, null, null, null, null, null, cursor, limit);
+    }
+
+    @Test
+    void lookAheadRowIsTrimmedAndTheCursorPointsAtTheLastKeptRow() {
+        when(itemRepo.findFeedPage(any())).thenReturn(List.of(
+                row("c", 3000, null), row("b", 2000, null), row("a", 1000, null)));
+
+        CursorPage<ItemSummaryResponse> page = feed(null, 2);
+
+        assertEquals(List.of("c", "b"), page.getItems().stream().map(ItemSummaryResponse::getItemId).toList());
+        PageCursor next = PageCursor.decode(page.getNextCursor());
+        assertEquals(new Timestamp(2000), next.timestamp());
+        assertEquals("b", next.getId());
+        assertEquals(3, lastQuery().getLimit());
+        assertEquals("me", lastQuery().getExcludeOwnerId());
+        assertNull(lastQuery().getAfter());
+    }
+
+    @Test
+    void exactlyOneFullPageHasNoNextCursor() {
+        when(itemRepo.findFeedPage(any())).thenReturn(List.of(row("b", 2000, null), row("a", 1000, null)));
+
+        CursorPage<ItemSummaryResponse> page = feed(null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void emptyFeedHasNoItemsAndNoCursor() {
+        when(itemRepo.findFeedPage(any())).thenReturn(List.of());
+
+        CursorPage<ItemSummaryResponse> page = feed(null, 2);
+
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void nextCursorIsHandedBackAsTheKeysetPosition() {
+        // Two rows share a timestamp across the page boundary; the id keeps them apart
+        when(itemRepo.findFeedPage(any())).thenReturn(List.of(
+                row("c", 2000, null), row("b", 2000, null), row("a", 2000, null)));
+        String cursor = feed(null, 2).getNextCursor();
+
+        feed(cursor, 2);
+
+        PageCursor after = lastQuery().getAfter();
+        assertEquals(new Timestamp(2000), after.timestamp());
+        assertEquals("b", after.getId());
+    }
+
+    @Test
+    void limitIsClampedAndDefaulted() {
+        when(itemRepo.findFeedPage(any())).thenReturn(List.of());
+
+        feed(null, 1000);
+        assertEquals(PageCursor.MAX_LIMIT + 1, lastQuery().getLimit());
+
+        feed(null, null);
+        assertEquals(PageCursor.DEFAULT_LIMIT + 1, lastQuery().getLimit());
+    }
+
+    @Test
+    void priceSortedPagesCarryThePriceOfTheLastRowInTheirCursor() {
+        when(itemRepo.findFeedPage(any())).thenReturn(List.of(
+                row("a", 1000, 99.5), row("b", 3000, 150.0), row("c", 2000, 150.0)));
+
+        String cursor = service.getAllActiveExceptUser(auth, null, null, 50.0, 500.0, "price_asc", null, 2)
+                .getNextCursor();
+        ItemFeedQuery first = lastQuery();
+        assertEquals(FeedSort.PRICE_ASC, first.getSort());
+        assertEquals(50.0, first.getMinPrice());
+        assertEquals(500.0, first.getMaxPrice());
+
+        service.getAllActiveExceptUser(auth, null, null, 50.0, 500.0, "price_asc", cursor, 2);
+        PageCursor after = lastQuery().getAfter();
+        assertEquals(150.0, after.price());
+        assertEquals("b", after.getId());
+    }
+
+    @Test
+    void unknownSortAndNearbyPriceSortAreRejected() {
+        assertThrows(RuntimeException.class,
+                () -> service.getAllActiveExceptUser(auth, null, null, null, null, "cheapest", null, 2));
+        assertThrows(RuntimeException.class,
+                () -> service.getAllActiveExceptUser(auth, null, "city", null, null, "price_desc", null, 2));
+        verifyNoInteractions(itemRepo);
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(RuntimeException.class, () -> feed("%%%", 2));
+        verifyNoInteractions(itemRepo);
+    }
+}
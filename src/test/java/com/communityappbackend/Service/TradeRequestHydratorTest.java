@@ -0,0 +1,111 @@
+package com.communityappbackend.Service;
+
+import com.communityappbackend.DTO.TradeRequestDetailedDTO;
+import com.communityappbackend.Model.Item;
+import com.communityappbackend.Model.ItemImage;
+import com.communityappbackend.Model.TradeRequest;
+import com.communityappbackend.Model.User;
+import com.communityappbackend.Repository.ItemRepository;
+import com.communityappbackend.Repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TradeRequestHydratorTest {
+
+    @Mock
+    private ItemRepository itemRepo;
+
+    @Mock
+    private UserRepository userRepo;
+
+    @InjectMocks
+    private TradeRequestHydrator hydrator;
+
+    // The number of repository calls must not depend on how many requests are on the page.
+    // This counts calls, not SQL statements; that each call is one statement (images are
+    // join-fetched) rests on the repository queries themselves.
+    @ParameterizedTest
+    @ValueSource(ints = {1, 200})
+    void callsEachBatchRepositoryMethodOnceWhateverThePageSize(int pageSize) {
+        List<TradeRequest> page = new ArrayList<>();
+        List<Item> items = new ArrayList<>();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            Item requested = item("req-" + i, "owner-" + i);
+            Item offered = item("off-" + i, "sender-" + i);
+            items.add(requested);
+            items.add(offered);
+            users.add(user("owner-" + i));
+            users.add(user("sender-" + i));
+            page.add(TradeRequest.builder()
+                    .requestId("r-" + i)
+                    .itemId(requested.getItemId())
+                    .offeredBy("sender-" + i)
+                    .tradeType("ITEM")
+                    .receiverSelectedItemId(offered.getItemId())
+                    .build());
+        }
+        when(itemRepo.findAllWithImagesByItemIdIn(anyCollection())).thenReturn(items);
+        when(userRepo.findAllById(anyIterable())).thenReturn(users);
+
+        List<TradeRequestDetailedDTO> dtos = hydrator.toDetailedDTOs(page);
+
+        verify(itemRepo, times(1)).findAllWithImagesByItemIdIn(anyCollection());
+        verify(userRepo, times(1)).findAllById(anyIterable());
+        verifyNoMoreInteractions(itemRepo, userRepo);
+
+        assertEquals(pageSize, dtos.size());
+        TradeRequestDetailedDTO last = dtos.get(pageSize - 1);
+        int n = pageSize - 1;
+        assertEquals("title req-" + n, last.getRequestedItemTitle());
+        assertEquals("title off-" + n, last.getOfferedItemTitle());
+        assertEquals("name sender-" + n, last.getOfferedByUserName());
+        assertEquals("owner-" + n, last.getReceiverUserId());
+        assertEquals(List.of(ItemImageUrls.original("req-" + n + ".jpg")), last.getRequestedItemImages());
+    }
+
+    @Test
+    void emptyPageRunsNoQueries() {
+        assertTrue(hydrator.toDetailedDTOs(List.of()).isEmpty());
+        verifyNoInteractions(itemRepo, userRepo);
+    }
+
+    @Test
+    void missingRowsFallBackToPlaceholders() {
+        when(itemRepo.findAllWithImagesByItemIdIn(anyCollection())).thenReturn(List.of());
+        when(userRepo.findAllById(anyIterable())).thenReturn(List.of());
+
+        TradeRequestDetailedDTO dto = hydrator.toDetailedDTOs(List.of(TradeRequest.builder()
+                .requestId("r")
+                .itemId("gone")
+                .offeredBy("nobody")
+                .build())).get(0);
+
+        assertEquals("Unknown Item", dto.getRequestedItemTitle());
+        assertEquals("Unknown User", dto.getOfferedByUserName());
+        assertTrue(dto.getRequestedItemImages().isEmpty());
+    }
+
+    private static Item item(String itemId, String ownerId) {
+        Item item = Item.builder().itemId(itemId).ownerId(ownerId).title("title " + itemId).build();
+        item.getImages().add(ItemImage.builder().imagePath(itemId + ".jpg").item(item).build());
+        return item;
+    }
+
+    private static User user(String userId) {
+        return User.builder().userId(userId).fullName("name " + userId).build();
+    }
+}
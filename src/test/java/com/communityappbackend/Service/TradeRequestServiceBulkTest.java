@@ -0,0 +1,89 @@
+package com.communityappbackend.Service;
+
+import com.communityappbackend.DTO.BulkTradeDecisionRequest;
+import com.communityappbackend.DTO.BulkTradeDecisionResult;
+import com.communityappbackend.Model.TradeRequest;
+import com.communityappbackend.Model.User;
+import com.communityappbackend.Repository.ItemRepository;
+import com.communityappbackend.Repository.TradeRequestRepository;
+import com.communityappbackend.Repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TradeRequestServiceBulkTest {
+
+    @Mock
+    private TradeRequestRepository tradeRequestRepo;
+    @Mock
+    private ItemRepository itemRepo;
+    @Mock
+    private UserRepository userRepo;
+    @Mock
+    private NotificationService notificationService;
+
+    private final Authentication owner = new UsernamePasswordAuthenticationToken(
+            User.builder().userId("owner").build(), null, List.of());
+
+    @Test
+    void onlyRequestsOnTheCallersItemsAreDecided() {
+        TradeRequest mine = request("r-mine", "item-mine");
+        TradeRequest theirs = request("r-theirs", "item-theirs");
+        when(tradeRequestRepo.findAllById(anyIterable())).thenReturn(List.of(mine, theirs));
+        when(itemRepo.lockOwnedById(eq("owner"), anyCollection())).thenReturn(List.of("item-mine"));
+        when(tradeRequestRepo.findAllByIdForUpdate(List.of("r-mine"))).thenReturn(List.of(mine));
+        when(tradeRequestRepo.findPendingOnItemsForUpdate(Set.of("item-mine"))).thenReturn(List.of());
+        when(userRepo.findAllById(anyIterable())).thenReturn(List.of());
+
+        List<BulkTradeDecisionResult> results = service().bulkDecide(BulkTradeDecisionRequest.builder()
+                .requestIds(List.of("r-mine", "r-theirs", "r-missing"))
+                .decision("approve")
+                .selectedItemIds(Map.of("r-mine", "sender-item"))
+                .build(), owner);
+
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals("ACCEPTED", results.get(0).getStatus());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals("Request is not on one of your items", results.get(1).getError());
+        assertEquals("Request not found", results.get(2).getError());
+
+        // One set-based accept for the caller's request only
+        verify(tradeRequestRepo).acceptAllPending(Map.of("r-mine", "sender-item"));
+        verify(tradeRequestRepo, never()).acceptIfPending(anyString(), any());
+        verify(tradeRequestRepo, never()).rejectAllPending(anyCollection());
+    }
+
+    @Test
+    void nothingIsLockedWhenNoRequestIsTheCallers() {
+        when(tradeRequestRepo.findAllById(anyIterable())).thenReturn(List.of(request("r", "item-theirs")));
+        when(itemRepo.lockOwnedById(eq("owner"), anyCollection())).thenReturn(List.of());
+
+        List<BulkTradeDecisionResult> results = service().bulkDecide(BulkTradeDecisionRequest.builder()
+                .requestIds(List.of("r"))
+                .decision("REJECT")
+                .build(), owner);
+
+        assertFalse(results.get(0).isSuccess());
+        verify(tradeRequestRepo, never()).findAllByIdForUpdate(anyCollection());
+        verify(tradeRequestRepo, never()).rejectAllPending(anyCollection());
+    }
+
+    private TradeRequestService service() {
+        return new TradeRequestService(tradeRequestRepo, itemRepo, userRepo, notificationService, null, null);
+    }
+
+    private static TradeRequest request(String requestId, String itemId) {
+        return TradeRequest.builder().requestId(requestId).itemId(itemId).offeredBy("sender").build();
+    }
+}
@@ -0,0 +1,175 @@
+package com.communityappbackend.Service;
+
+import com.communityappbackend.DTO.NotificationDTO;
+import com.communityappbackend.Model.TradeRequest;
+import com.communityappbackend.Model.User;
+import com.communityappbackend.Repository.ItemRepository;
+import com.communityappbackend.Repository.TradeRequestRepository;
+import com.communityappbackend.Repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * How the service acts on the result of the conditional updates: only the caller whose
+ * acceptIfPending or rejectIfPending reported a row goes on to notify, and the rest get
+ * "Request is not pending". The repository is a mock over a map, so this does not test the
+ * SQL itself; that only one UPDATE ... WHERE status = 'PENDING' can match, and that the
+ * FOR UPDATE item lock serializes deciders, is down to the database.
+ */
+@ExtendWith(MockitoExtension.class)
+class TradeRequestServiceOrchestrationTest {
+
+    private static final int THREADS = 32;
+    private static final int ROUNDS = 50;
+
+    @Mock
+    private TradeRequestRepository tradeRequestRepo;
+    @Mock
+    private ItemRepository itemRepo;
+    @Mock
+    private UserRepository userRepo;
+    @Mock
+    private NotificationService notificationService;
+
+    private final Authentication owner = auth("owner");
+    private final Map<String, String> statuses = new ConcurrentHashMap<>();
+    private TradeRequestService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TradeRequestService(tradeRequestRepo, itemRepo, userRepo, notificationService, null, null);
+
+        lenient().when(tradeRequestRepo.findItemIdByRequestId(anyString()))
+                .thenAnswer(inv -> statuses.containsKey(inv.<String>getArgument(0))
+                        ? Optional.of("item-1") : Optional.empty());
+        lenient().when(itemRepo.lockOwnedById(anyString(), anyCollection()))
+                .thenAnswer(inv -> "owner".equals(inv.getArgument(0)) ? List.of("item-1") : List.of());
+        lenient().when(tradeRequestRepo.acceptIfPending(anyString(), any()))
+                .thenAnswer(inv -> statuses.replace(inv.getArgument(0), "PENDING", "ACCEPTED") ? 1 : 0);
+        lenient().when(tradeRequestRepo.rejectIfPending(anyString()))
+                .thenAnswer(inv -> statuses.replace(inv.getArgument(0), "PENDING", "REJECTED") ? 1 : 0);
+        lenient().when(tradeRequestRepo.findById(anyString()))
+                .thenAnswer(inv -> Optional.ofNullable(request(inv.getArgument(0))));
+        lenient().when(tradeRequestRepo.existsById(anyString()))
+                .thenAnswer(inv -> statuses.containsKey(inv.<String>getArgument(0)));
+        lenient().when(tradeRequestRepo.findOtherPendingForUpdate(anyString(), anyString()))
+                .thenReturn(List.of());
+        lenient().when(userRepo.findAllById(anyIterable())).thenReturn(List.of());
+        lenient().when(userRepo.findById(anyString())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void onlyTheCallerWhoseUpdateMatchedNotifies() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                String requestId = "req-" + round;
+                statuses.put(requestId, "PENDING");
+                clearInvocations(notificationService);
+
+                CountDownLatch start = new CountDownLatch(1);
+                AtomicInteger wins = new AtomicInteger();
+                AtomicInteger notPending = new AtomicInteger();
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    boolean approve = t % 2 == 0;
+                    futures.add(pool.submit(() -> {
+                        start.await();
+                        try {
+                            if (approve) {
+                                service.approveRequest(requestId, null, owner);
+                            } else {
+                                service.rejectRequest(requestId, owner);
+                            }
+                            wins.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            assertEquals("Request is not pending", e.getMessage());
+                            notPending.incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> f : futures) {
+                    f.get(10, TimeUnit.SECONDS);
+                }
+
+                assertEquals(1, wins.get(), "round " + round);
+                assertEquals(THREADS - 1, notPending.get(), "round " + round);
+                int batches = mockingDetails(notificationService).getInvocations().size();
+                assertEquals(1, batches, "one notification call per decided request");
+                String finalStatus = statuses.get(requestId);
+                if ("ACCEPTED".equals(finalStatus)) {
+                    verify(notificationService).createNotifications(anyList());
+                } else {
+                    assertEquals("REJECTED", finalStatus);
+                    verify(notificationService).createNotification(any(NotificationDTO.class));
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void unknownRequestIsReportedAsMissing() {
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> service.approveRequest("missing", null, owner));
+        assertEquals("Request not found", e.getMessage());
+        verifyNoInteractions(itemRepo, notificationService);
+    }
+
+    @Test
+    void onlyTheItemOwnerCanApprove() {
+        statuses.put("req", "PENDING");
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> service.approveRequest("req", null, auth("stranger")));
+        assertEquals("Request is not on one of your items", e.getMessage());
+        assertEquals("PENDING", statuses.get("req"));
+        verify(tradeRequestRepo, never()).acceptIfPending(anyString(), any());
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    void onlyTheItemOwnerCanReject() {
+        statuses.put("req", "PENDING");
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> service.rejectRequest("req", auth("stranger")));
+        assertEquals("Request is not on one of your items", e.getMessage());
+        assertEquals("PENDING", statuses.get("req"));
+        verify(tradeRequestRepo, never()).rejectIfPending(anyString());
+        verifyNoInteractions(notificationService);
+    }
+
+    private static Authentication auth(String userId) {
+        return new UsernamePasswordAuthenticationToken(User.builder().userId(userId).build(), null, List.of());
+    }
+
+    private TradeRequest request(String requestId) {
+        String status = statuses.get(requestId);
+        if (status == null) {
+            return null;
+        }
+        return TradeRequest.builder()
+                .requestId(requestId)
+                .itemId("item-1")
+                .offeredBy("sender-1")
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,63 @@
+package com.communityappbackend.Service;
+
+import com.communityappbackend.DTO.TradeRequestDetailedDTO;
+import com.communityappbackend.Model.TradeRequest;
+import com.communityappbackend.Repository.ItemRepository;
+import com.communityappbackend.Repository.TradeRequestRepository;
+import com.communityappbackend.Repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TradeRequestServiceStreamTest {
+
+    @Mock
+    private TradeRequestRepository tradeRequestRepo;
+    @Mock
+    private TradeRequestHydrator hydrator;
+    @Mock
+    private EntityManager entityManager;
+
+    // Each chunk is detached before the next is loaded, so the persistence context never holds more than one
+    @Test
+    void clearsThePersistenceContextAfterEveryChunk() {
+        when(tradeRequestRepo.findIncomingPage(eq("owner"), isNull(), any(), any(), any()))
+                .thenReturn(rows(0, 200), rows(200, 200), rows(400, 50));
+        when(hydrator.toDetailedDTOs(anyList()))
+                .thenAnswer(inv -> new ArrayList<>(List.of(new TradeRequestDetailedDTO())));
+
+        TradeRequestService service = new TradeRequestService(tradeRequestRepo, mock(ItemRepository.class),
+                mock(UserRepository.class), mock(NotificationService.class), hydrator, null);
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+
+        List<List<TradeRequestDetailedDTO>> chunks = new ArrayList<>();
+        service.streamIncomingRequestsDetailed("owner", null, chunks::add);
+
+        assertEquals(3, chunks.size());
+        verify(tradeRequestRepo, times(3)).findIncomingPage(any(), any(), any(), any(), any());
+        verify(entityManager, times(3)).clear();
+    }
+
+    private static List<TradeRequest> rows(int from, int count) {
+        List<TradeRequest> rows = new ArrayList<>();
+        for (int i = from; i < from + count; i++) {
+            rows.add(TradeRequest.builder()
+                    .requestId(String.format("r-%05d", i))
+                    .createdAt(new Timestamp(1_000_000L - i))
+                    .build());
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,74 @@
+package com.communityappbackend.Service;
+
+import com.communityappbackend.DTO.SignUpRequest;
+import com.communityappbackend.Model.User;
+import com.communityappbackend.Repository.UserRepository;
+import com.communityappbackend.Security.PasswordHasher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Database work after a BCrypt step must not run on the BCrypt pool.
+ */
+class UserServiceTest {
+
+    private final PasswordHasher passwordHasher =
+            new PasswordHasher(new BCryptPasswordEncoder(4), new SimpleMeterRegistry(), 1, 4, 1);
+    private final ExecutorService taskExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "task-1"));
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserService userService = new UserService(userRepository, passwordHasher,
+            mock(TransactionTemplate.class), null, null, null, null, null, taskExecutor);
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.shutdown();
+        taskExecutor.shutdownNow();
+    }
+
+    @Test
+    void signUpSavesTheUserOnTheTaskExecutor() throws Exception {
+        AtomicReference<String> saveThread = new AtomicReference<>();
+        when(userRepository.save(any(User.class))).thenAnswer(inv -> {
+            saveThread.set(Thread.currentThread().getName());
+            return inv.getArgument(0);
+        });
+
+        AtomicReference<String> continuationThread = new AtomicReference<>();
+        User user = userService.signUp(SignUpRequest.builder().email("a@b.c").password("secret").build())
+                .thenApply(u -> {
+                    continuationThread.set(Thread.currentThread().getName());
+                    return u;
+                })
+                .get(10, TimeUnit.SECONDS);
+
+        assertTrue(new BCryptPasswordEncoder().matches("secret", user.getPasswordHash()));
+        assertEquals("task-1", saveThread.get());
+        assertNotEquals("bcrypt-1", continuationThread.get());
+    }
+
+    @Test
+    void authenticateCompletesOffTheBcryptPool() throws Exception {
+        User stored = User.builder().userId("u1").email("a@b.c")
+                .passwordHash(new BCryptPasswordEncoder(4).encode("secret")).build();
+        when(userRepository.findByEmail("a@b.c")).thenReturn(stored);
+
+        AtomicReference<String> continuationThread = new AtomicReference<>();
+        userService.authenticate("a@b.c", "secret")
+                .thenAccept(u -> continuationThread.set(Thread.currentThread().getName()))
+                .get(10, TimeUnit.SECONDS);
+
+        assertNotEquals("bcrypt-1", continuationThread.get());
+    }
+}